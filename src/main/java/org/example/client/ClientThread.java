@@ -1,182 +1,171 @@
 package org.example.client;
 
 import lombok.Setter;
+import org.example.client.framing.FrameCodec;
 import org.example.interfaces.ClientsListDriver;
 import org.example.interfaces.ReceiveDriver;
 import org.example.interfaces.ServerController;
 import org.example.interfaces.TopicsDriver;
+import org.example.server.messages_to_send.OfferResult;
+import org.example.server.messages_to_send.OutboundQueue;
+import org.example.server.messages_to_send.SharedDelivery;
+import org.example.server.messages_to_send.WriteStats;
 import org.example.server.receive_message.ReceivedMessage;
-import org.example.server.topics.TopicData;
+import org.example.server.wire.WireFormat;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
-import static org.example.settings.Settings.CLIENT_NOT_CONNECTED_MSG;
 
-
-public class ClientThread extends Thread {
-
-    private Socket clientSocket;
+public abstract class ClientThread {
 
     private String clientId;
 
     @Setter
-    private boolean actionRequest;
+    private volatile boolean actionRequest;
 
-    private DataOutputStream outputStream;
-    private DataInputStream inputStream;
     private ClientsListDriver clientsListDriver;
-    private ReceiveDriver receiveDriver;
+    protected ReceiveDriver receiveDriver;
     private TopicsDriver topicsDriver;
     private ServerController serverController;
-    private AtomicBoolean running;
-    private int sizeLimit;
+    protected FrameCodec frameCodec;
+    protected List<byte[]> receivedFrames;
+    protected OutboundQueue outboundQueue;
+    protected List<ByteBuffer[]> writeBatch;
+    protected int writeBatchSize;
+    protected WriteStats writeStats;
 
+    private volatile WireFormat wireFormat = WireFormat.JSON;
+    private boolean wireFormatDetected;
+    private boolean binaryRejected;
 
-    public ClientThread(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver,
-                        ServerController serverController, Socket clientSocket, int sizeLimit) throws IOException {
-        if (clientSocket == null || clientSocket.isClosed())
-            throw new IOException("Socket null or closed");
 
+    protected ClientThread(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver,
+                           ServerController serverController, FrameCodec frameCodec, OutboundQueue outboundQueue) {
         this.clientsListDriver = clientsListDriver;
         this.receiveDriver = receiveDriver;
-        this.clientSocket = clientSocket;
         this.topicsDriver = topicsDriver;
         this.serverController = serverController;
 
-        this.sizeLimit = sizeLimit;
-
-        this.running = new AtomicBoolean(false);
-        this.outputStream = new DataOutputStream(this.clientSocket.getOutputStream());
-        this.inputStream = new DataInputStream(this.clientSocket.getInputStream());
+        this.frameCodec = frameCodec;
+        this.receivedFrames = new ArrayList<>();
+        this.outboundQueue = outboundQueue;
+        this.writeBatchSize = serverController.getServerConfig().getWriteBatchSize();
+        this.writeBatch = new ArrayList<>(writeBatchSize);
+        this.writeStats = serverController.getWriteStats();
     }
 
 
-    public ClientThread(String serverId) {
-        clientId = serverId;
+    protected ClientThread(String clientId) {
+        this.clientId = clientId;
     }
 
 
-    @Override
-    public void run() {
-        running.set(true);
-
-        while (running.get()) {
-            try {
-                String recvMessage = receiveMessage();
-                receiveDriver.addNewMessage(new ReceivedMessage(recvMessage, this));
-            } catch (SocketTimeoutException e) {
-                if (actionRequest)
-                    continue;
-                disconnectClientDueToNoActivity();
-                break;
-            } catch (IOException e) {
-                System.out.println("Client " + clientSocket.getRemoteSocketAddress() + " disconnected (" + clientId + ")");
-                disconnect();
-                break;
-            }
-        }
-    }
+    public abstract void stopThread();
 
 
-    public synchronized void stopThread() {
-        if (clientSocket == null || !running.get())
-            return;
+    public abstract void disconnect();
+
+
+    protected abstract void scheduleFlush();
 
-        running.set(false);
-        try {
-            clientSocket.close();
-        } catch (Exception ignored) {
-        }
-    }
 
+    protected abstract SocketAddress getRemoteSocketAddress();
 
-    private void disconnectClientDueToNoActivity() {
-        System.err.println("Timeout: No data received from client " + clientSocket.getRemoteSocketAddress() + " (" + clientId + ")");
+
+    public void disconnectClientDueToNoActivity() {
+        System.err.println("Timeout: No data received from client " + getRemoteSocketAddress() + " (" + clientId + ")");
         disconnect();
     }
 
 
-    public synchronized int sendMessage(String message) throws IOException {
-        if (clientSocket == null || !clientSocket.isConnected())
-            throw new IOException(CLIENT_NOT_CONNECTED_MSG);
+    public OfferResult enqueue(ByteBuffer... message) {
+        return enqueue(null, null, message);
+    }
 
-        byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
-        outputStream.write(messageBytes);
-        outputStream.flush();
 
-        return messageBytes.length;
+    public OfferResult enqueueConflated(String conflationKey, ByteBuffer... message) {
+        return enqueue(conflationKey, null, message);
     }
 
 
-    public String receiveMessage() throws IOException {
-        if (clientSocket == null || !clientSocket.isConnected())
-            throw new IOException(CLIENT_NOT_CONNECTED_MSG);
+    public OfferResult enqueueShared(SharedDelivery sharedDelivery, ByteBuffer... message) {
+        return enqueue(null, sharedDelivery, message);
+    }
+
 
-        byte[] bytes = new byte[sizeLimit];
-        int bytesRead = inputStream.read(bytes);
+    private OfferResult enqueue(String conflationKey, SharedDelivery sharedDelivery, ByteBuffer... message) {
+        OfferResult result = outboundQueue.offer(conflationKey, sharedDelivery, message);
 
-        if (bytesRead == -1)
-            throw new IOException("Client communication error");
+        if (sharedDelivery != null && outboundQueue.isClosed())
+            redeliverOrphans();
 
-        return new String(bytes, 0, bytesRead);
+        if (result != OfferResult.OVERFLOW && outboundQueue.tryScheduleFlush())
+            scheduleFlush();
+
+        return result;
     }
 
 
-    public synchronized void disconnect() {
-        if (clientSocket == null || clientSocket.isClosed())
-            return;
+    protected void dispatchReceivedFrames() {
+        for (byte[] frame : receivedFrames) {
+            if (!wireFormatDetected)
+                detectWireFormat(frame);
+            else if (binaryRejected)
+                continue;
 
-        try {
-            clientSocket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            System.err.println("Removing client: " + clientId);
-            handleClientDisconnect();
+            receiveDriver.addNewMessage(new ReceivedMessage(frame, this));
         }
+
+        receivedFrames.clear();
+    }
+
+
+    private void detectWireFormat(byte[] frame) {
+        wireFormat = WireFormat.detect(frame);
+        wireFormatDetected = true;
+        binaryRejected = !frameCodec.supportsBinaryFrames() && WireFormat.startsWithSmileHeader(frame);
     }
 
 
-    private void handleClientDisconnect() {
-        if (clientSocket == null)
+    protected void handleClientDisconnect() {
+        if (clientsListDriver == null)
             return;
 
         clientsListDriver.removeClient(this);
-        closeStreams();
 
-        Map<String, TopicData> topics = serverController.getTopics();
+        topicsDriver.unregisterClient(this);
 
-        for (Map.Entry<String, TopicData> entry : topics.entrySet()) {
-            String topicName = entry.getKey();
-            TopicData topicData = entry.getValue();
-            ClientThread producer = topicData.getProducer();
+        redeliverOrphans();
+    }
 
-            if (Objects.equals(producer, this)) {
-                topicsDriver.unregisterTopic(topicName);
-                continue;
-            }
 
-            if (topicData.getSubscribers().contains(this))
-                topicsDriver.unregisterSubscription(topicName, this);
-        }
+    private void redeliverOrphans() {
+        List<SharedDelivery> orphanedDeliveries = outboundQueue.takeOrphanedDeliveries();
+        if (!orphanedDeliveries.isEmpty())
+            topicsDriver.redeliverShared(orphanedDeliveries);
     }
 
 
-    private void closeStreams() {
-        try {
-            inputStream.close();
-            outputStream.close();
-        } catch (IOException ignored) {
+    public OutboundQueue getOutboundQueue() {
+        return outboundQueue;
+    }
 
-        }
+
+    public boolean supportsBinaryFrames() {
+        return frameCodec.supportsBinaryFrames();
+    }
+
+
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+
+    protected boolean isActionRequest() {
+        return actionRequest;
     }
 
 
@@ -0,0 +1,218 @@
+package org.example.client;
+
+import org.example.client.framing.FrameCodec;
+import org.example.interfaces.ClientsListDriver;
+import org.example.interfaces.ReceiveDriver;
+import org.example.interfaces.ServerController;
+import org.example.interfaces.TopicsDriver;
+import org.example.server.messages_to_send.OutboundQueue;
+import org.example.server.nio.EventLoop;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.example.settings.Settings.CLIENT_NOT_CONNECTED_MSG;
+import static org.example.settings.Settings.WRITE_BATCH_MAX_BYTES;
+
+public class NioClient extends ClientThread {
+
+    private static final int FRAME_PARTS = 3;
+
+    private final SocketChannel channel;
+    private final EventLoop eventLoop;
+    private final AtomicBoolean closed;
+    private final SocketAddress remoteAddress;
+
+    private final int[] messageEnds;
+    private ByteBuffer[] pendingFrames;
+
+    private SelectionKey selectionKey;
+    private int pendingOffset;
+    private int pendingLength;
+    private int pendingMessages;
+    private int completedMessages;
+    private long lastReadNanos;
+
+
+    public NioClient(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver,
+                     ServerController serverController, SocketChannel channel, EventLoop eventLoop, FrameCodec frameCodec, OutboundQueue outboundQueue) throws IOException {
+        super(clientsListDriver, receiveDriver, topicsDriver, serverController, frameCodec, outboundQueue);
+
+        if (channel == null || !channel.isOpen())
+            throw new IOException("Channel null or closed");
+
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.closed = new AtomicBoolean(false);
+        this.pendingFrames = new ByteBuffer[FRAME_PARTS * writeBatchSize];
+        this.messageEnds = new int[writeBatchSize];
+        this.remoteAddress = channel.getRemoteAddress();
+        this.lastReadNanos = System.nanoTime();
+    }
+
+
+    public void register(Selector selector) {
+        try {
+            selectionKey = channel.register(selector, SelectionKey.OP_READ, this);
+            lastReadNanos = System.nanoTime();
+        } catch (ClosedChannelException e) {
+            disconnect();
+        }
+    }
+
+
+    public void handleRead() {
+        try {
+            receiveMessages();
+            dispatchReceivedFrames();
+        } catch (IOException e) {
+            System.out.println("Client " + remoteAddress + " disconnected (" + getClientId() + ")");
+            disconnect();
+        }
+    }
+
+
+    private void receiveMessages() throws IOException {
+        if (closed.get())
+            throw new IOException(CLIENT_NOT_CONNECTED_MSG);
+
+        int bytesRead = channel.read(frameCodec.getReadBuffer());
+
+        if (bytesRead == -1)
+            throw new IOException("Client communication error");
+
+        if (bytesRead == 0)
+            return;
+
+        lastReadNanos = System.nanoTime();
+        frameCodec.decodeFrames(receivedFrames);
+    }
+
+
+    @Override
+    protected void scheduleFlush() {
+        eventLoop.scheduleFlush(this);
+    }
+
+
+    public void handleWrite() {
+        if (closed.get() || selectionKey == null)
+            return;
+
+        try {
+            while (true) {
+                if (pendingLength == 0 && !fillPendingFrames())
+                    break;
+
+                long written = channel.write(pendingFrames, pendingOffset, pendingLength);
+                int sentMessages = advancePendingFrames();
+                writeStats.record(sentMessages, written);
+
+                if (pendingLength > 0) {
+                    selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+
+            selectionKey.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            System.err.println("Error sending message to " + this);
+            disconnect();
+        }
+    }
+
+
+    private boolean fillPendingFrames() {
+        int messagesCount = outboundQueue.drainTo(writeBatch, writeBatchSize, WRITE_BATCH_MAX_BYTES);
+        if (messagesCount == 0)
+            return false;
+
+        int index = 0;
+        int messageIndex = 0;
+
+        for (ByteBuffer[] message : writeBatch) {
+            if (pendingFrames.length < index + FRAME_PARTS * message.length)
+                pendingFrames = Arrays.copyOf(pendingFrames, Math.max(pendingFrames.length * 2, index + FRAME_PARTS * message.length));
+
+            for (ByteBuffer frame : message) {
+                pendingFrames[index++] = frameCodec.encodeHeader(frame.remaining());
+                pendingFrames[index++] = frame.duplicate();
+                pendingFrames[index++] = frameCodec.encodeTrailer();
+            }
+
+            messageEnds[messageIndex++] = index;
+        }
+
+        writeBatch.clear();
+        pendingOffset = 0;
+        pendingLength = index;
+        pendingMessages = messageIndex;
+        completedMessages = 0;
+        return true;
+    }
+
+
+    private int advancePendingFrames() {
+        int end = pendingOffset + pendingLength;
+        int completedBefore = completedMessages;
+
+        while (pendingOffset < end && !pendingFrames[pendingOffset].hasRemaining())
+            pendingFrames[pendingOffset++] = null;
+
+        while (completedMessages < pendingMessages && messageEnds[completedMessages] <= pendingOffset)
+            completedMessages++;
+
+        pendingLength = end - pendingOffset;
+        return completedMessages - completedBefore;
+    }
+
+
+    public boolean isIdle(long now, long timeoutNanos) {
+        return !isActionRequest() && now - lastReadNanos > timeoutNanos;
+    }
+
+
+    @Override
+    public void stopThread() {
+        if (!closed.compareAndSet(false, true))
+            return;
+
+        closeChannel();
+    }
+
+
+    @Override
+    public void disconnect() {
+        if (!closed.compareAndSet(false, true))
+            return;
+
+        closeChannel();
+        System.err.println("Removing client: " + getClientId());
+        handleClientDisconnect();
+    }
+
+
+    private void closeChannel() {
+        outboundQueue.close();
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        return remoteAddress;
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.example.client;
+
+import java.net.SocketAddress;
+
+
+// Producer identity of the topics the server publishes itself; there is no connection behind it.
+public class ServerClient extends ClientThread {
+
+    public ServerClient(String serverId) {
+        super(serverId);
+    }
+
+
+    @Override
+    public void stopThread() {
+    }
+
+
+    @Override
+    public void disconnect() {
+    }
+
+
+    @Override
+    protected void scheduleFlush() {
+    }
+
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        return null;
+    }
+
+}
@@ -0,0 +1,238 @@
+package org.example.client;
+
+import org.example.client.framing.FrameCodec;
+import org.example.interfaces.ClientsListDriver;
+import org.example.interfaces.DeliveryDriver;
+import org.example.interfaces.ReceiveDriver;
+import org.example.interfaces.ServerController;
+import org.example.interfaces.TopicsDriver;
+import org.example.server.messages_to_send.OutboundQueue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.example.settings.Settings.CLIENT_NOT_CONNECTED_MSG;
+import static org.example.settings.Settings.WRITE_BATCH_MAX_BYTES;
+
+
+public class SocketClient extends ClientThread implements Runnable {
+
+    private final Socket clientSocket;
+    private final OutputStream outputStream;
+    private final DataInputStream inputStream;
+    private final DeliveryDriver deliveryDriver;
+    private final AtomicBoolean running;
+
+    private byte[] writeBuffer = new byte[0];
+    private int streamedBytes;
+
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final ReentrantLock stateLock = new ReentrantLock();
+
+
+    public SocketClient(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver,
+                        ServerController serverController, DeliveryDriver deliveryDriver, Socket clientSocket,
+                        FrameCodec frameCodec, OutboundQueue outboundQueue) throws IOException {
+        super(clientsListDriver, receiveDriver, topicsDriver, serverController, frameCodec, outboundQueue);
+
+        if (clientSocket == null || clientSocket.isClosed())
+            throw new IOException("Socket null or closed");
+
+        this.deliveryDriver = deliveryDriver;
+        this.clientSocket = clientSocket;
+        this.outputStream = this.clientSocket.getOutputStream();
+        this.inputStream = new DataInputStream(this.clientSocket.getInputStream());
+        this.running = new AtomicBoolean(false);
+    }
+
+
+    @Override
+    public void run() {
+        running.set(true);
+
+        while (running.get()) {
+            try {
+                receiveMessages();
+                dispatchReceivedFrames();
+            } catch (SocketTimeoutException e) {
+                if (isActionRequest())
+                    continue;
+                disconnectClientDueToNoActivity();
+                break;
+            } catch (IOException e) {
+                System.out.println("Client " + getRemoteSocketAddress() + " disconnected (" + getClientId() + ")");
+                disconnect();
+                break;
+            }
+        }
+    }
+
+
+    @Override
+    public void stopThread() {
+        stateLock.lock();
+        try {
+            if (!running.get())
+                return;
+
+            running.set(false);
+            clientSocket.close();
+        } catch (Exception ignored) {
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+
+    @Override
+    protected void scheduleFlush() {
+        deliveryDriver.scheduleFlush(this);
+    }
+
+
+    public void flushOutbound() {
+        try {
+            boolean sent;
+            do {
+                sent = sendBatch();
+            } while (sent);
+        } catch (IOException e) {
+            System.err.println("Error sending message to " + this);
+            disconnect();
+        }
+    }
+
+
+    private boolean sendBatch() throws IOException {
+        if (!clientSocket.isConnected())
+            throw new IOException(CLIENT_NOT_CONNECTED_MSG);
+
+        sendLock.lock();
+        try {
+            int messagesCount = outboundQueue.drainTo(writeBatch, writeBatchSize, WRITE_BATCH_MAX_BYTES);
+            if (messagesCount == 0)
+                return false;
+
+            int length = 0;
+            streamedBytes = 0;
+            for (ByteBuffer[] message : writeBatch) {
+                for (ByteBuffer frame : message)
+                    length = encodeFrame(frame, length);
+            }
+
+            outputStream.write(writeBuffer, 0, length);
+            outputStream.flush();
+            writeStats.record(messagesCount, streamedBytes + length);
+            return true;
+        } finally {
+            writeBatch.clear();
+            sendLock.unlock();
+        }
+    }
+
+
+    private int encodeFrame(ByteBuffer message, int offset) throws IOException {
+        ByteBuffer header = frameCodec.encodeHeader(message.remaining());
+        ByteBuffer trailer = frameCodec.encodeTrailer();
+        int headerLength = header.remaining();
+        int trailerLength = trailer.remaining();
+        int frameLength = headerLength + message.remaining() + trailerLength;
+
+        if (offset + frameLength > WRITE_BATCH_MAX_BYTES) {
+            outputStream.write(writeBuffer, 0, offset);
+            streamedBytes += offset;
+            offset = 0;
+        }
+
+        if (frameLength > WRITE_BATCH_MAX_BYTES) {
+            streamFrame(header, message.duplicate(), trailer);
+            streamedBytes += frameLength;
+            return 0;
+        }
+
+        int end = offset + frameLength;
+        if (writeBuffer.length < end)
+            writeBuffer = Arrays.copyOf(writeBuffer, Math.min(Math.max(end, writeBuffer.length * 2), WRITE_BATCH_MAX_BYTES));
+
+        header.get(writeBuffer, offset, headerLength);
+        message.get(message.position(), writeBuffer, offset + headerLength, message.remaining());
+        trailer.get(writeBuffer, end - trailerLength, trailerLength);
+
+        return end;
+    }
+
+
+    private void streamFrame(ByteBuffer... parts) throws IOException {
+        if (writeBuffer.length < WRITE_BATCH_MAX_BYTES)
+            writeBuffer = new byte[WRITE_BATCH_MAX_BYTES];
+
+        for (ByteBuffer part : parts) {
+            while (part.hasRemaining()) {
+                int length = Math.min(part.remaining(), writeBuffer.length);
+                part.get(writeBuffer, 0, length);
+                outputStream.write(writeBuffer, 0, length);
+            }
+        }
+    }
+
+
+    private void receiveMessages() throws IOException {
+        if (!clientSocket.isConnected())
+            throw new IOException(CLIENT_NOT_CONNECTED_MSG);
+
+        ByteBuffer readBuffer = frameCodec.getReadBuffer();
+        int bytesRead = inputStream.read(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position(), readBuffer.remaining());
+
+        if (bytesRead == -1)
+            throw new IOException("Client communication error");
+
+        readBuffer.position(readBuffer.position() + bytesRead);
+        frameCodec.decodeFrames(receivedFrames);
+    }
+
+
+    @Override
+    public void disconnect() {
+        stateLock.lock();
+        try {
+            if (clientSocket.isClosed())
+                return;
+
+            clientSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            stateLock.unlock();
+        }
+
+        System.err.println("Removing client: " + getClientId());
+        outboundQueue.close();
+        closeStreams();
+        handleClientDisconnect();
+    }
+
+
+    private void closeStreams() {
+        try {
+            inputStream.close();
+            outputStream.close();
+        } catch (IOException ignored) {
+
+        }
+    }
+
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        return clientSocket.getRemoteSocketAddress();
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.example.client.framing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public abstract class FrameCodec {
+
+    protected final int sizeLimit;
+    protected final ByteBuffer readBuffer;
+
+    protected FrameCodec(int sizeLimit, int frameOverhead) {
+        this.sizeLimit = sizeLimit;
+        this.readBuffer = ByteBuffer.allocate(sizeLimit + frameOverhead);
+    }
+
+
+    public static FrameCodec create(String frameMode, int sizeLimit) {
+        return switch (frameMode) {
+            case "length" -> new LengthPrefixedFrameCodec(sizeLimit);
+            default -> new NewlineFrameCodec(sizeLimit);
+        };
+    }
+
+
+    public ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+
+    public abstract void decodeFrames(List<byte[]> frames) throws IOException;
+
+
+    public abstract ByteBuffer encodeHeader(int payloadLength);
+
+
+    public abstract ByteBuffer encodeTrailer();
+
+
+    public abstract boolean supportsBinaryFrames();
+
+}
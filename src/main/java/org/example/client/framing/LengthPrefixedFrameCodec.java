@@ -0,0 +1,65 @@
+package org.example.client.framing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.example.settings.Settings.FRAME_TOO_LARGE_MSG;
+
+public class LengthPrefixedFrameCodec extends FrameCodec {
+
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final ByteBuffer EMPTY_TRAILER = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+    public LengthPrefixedFrameCodec(int sizeLimit) {
+        super(sizeLimit, HEADER_SIZE);
+    }
+
+
+    @Override
+    public void decodeFrames(List<byte[]> frames) throws IOException {
+        readBuffer.flip();
+
+        try {
+            while (readBuffer.remaining() >= HEADER_SIZE) {
+                int start = readBuffer.position();
+                int length = readBuffer.getInt(start);
+
+                if (length < 0 || length > sizeLimit)
+                    throw new IOException(FRAME_TOO_LARGE_MSG);
+
+                if (readBuffer.remaining() < HEADER_SIZE + length)
+                    break;
+
+                if (length > 0)
+                    frames.add(Arrays.copyOfRange(readBuffer.array(), readBuffer.arrayOffset() + start + HEADER_SIZE, readBuffer.arrayOffset() + start + HEADER_SIZE + length));
+
+                readBuffer.position(start + HEADER_SIZE + length);
+            }
+        } finally {
+            readBuffer.compact();
+        }
+    }
+
+
+    @Override
+    public ByteBuffer encodeHeader(int payloadLength) {
+        return ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(payloadLength)
+                .flip();
+    }
+
+
+    @Override
+    public ByteBuffer encodeTrailer() {
+        return EMPTY_TRAILER;
+    }
+
+
+    @Override
+    public boolean supportsBinaryFrames() {
+        return true;
+    }
+
+}
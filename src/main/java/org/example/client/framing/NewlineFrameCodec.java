@@ -0,0 +1,78 @@
+package org.example.client.framing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.example.settings.Settings.FRAME_TOO_LARGE_MSG;
+
+public class NewlineFrameCodec extends FrameCodec {
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final ByteBuffer EMPTY_HEADER = ByteBuffer.allocate(0).asReadOnlyBuffer();
+    private static final ByteBuffer TRAILER = ByteBuffer.wrap(new byte[]{LF}).asReadOnlyBuffer();
+
+    private int scanPosition;
+
+    public NewlineFrameCodec(int sizeLimit) {
+        super(sizeLimit, 2);
+    }
+
+
+    @Override
+    public void decodeFrames(List<byte[]> frames) throws IOException {
+        readBuffer.flip();
+
+        byte[] bytes = readBuffer.array();
+        int offset = readBuffer.arrayOffset();
+        int frameStart = readBuffer.position();
+        int limit = readBuffer.limit();
+
+        try {
+            for (int i = scanPosition; i < limit; i++) {
+                if (bytes[offset + i] != LF)
+                    continue;
+
+                int frameEnd = i;
+                if (frameEnd > frameStart && bytes[offset + frameEnd - 1] == CR)
+                    frameEnd--;
+
+                if (frameEnd - frameStart > sizeLimit)
+                    throw new IOException(FRAME_TOO_LARGE_MSG);
+
+                if (frameEnd > frameStart)
+                    frames.add(Arrays.copyOfRange(bytes, offset + frameStart, offset + frameEnd));
+
+                frameStart = i + 1;
+            }
+
+            if (limit - frameStart >= readBuffer.capacity())
+                throw new IOException(FRAME_TOO_LARGE_MSG);
+        } finally {
+            readBuffer.position(frameStart);
+            readBuffer.compact();
+            scanPosition = readBuffer.position();
+        }
+    }
+
+
+    @Override
+    public ByteBuffer encodeHeader(int payloadLength) {
+        return EMPTY_HEADER;
+    }
+
+
+    @Override
+    public ByteBuffer encodeTrailer() {
+        return TRAILER.duplicate();
+    }
+
+
+    @Override
+    public boolean supportsBinaryFrames() {
+        return false;
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.example.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+@JsonPropertyOrder({"ServerId", "ListenAddresses", "ListenPort", "TimeOut", "SizeLimit", "AllowedIPAddresses"})
+public record ClientConfig(@JsonProperty("ServerId") String serverId,
+                           @JsonProperty("ListenAddresses") String listenAddresses,
+                           @JsonProperty("ListenPort") int listenPort,
+                           @JsonProperty("TimeOut") int timeOut,
+                           @JsonProperty("SizeLimit") int sizeLimit,
+                           @JsonProperty("AllowedIPAddresses") List<String> allowedIPAddresses) {
+
+    public static ClientConfig from(Config config) {
+        return new ClientConfig(config.getServerId(), config.getListenAddresses(), config.getListenPort(),
+                config.getTimeOut(), config.getSizeLimit(), config.getAllowedIPAddresses());
+    }
+
+}
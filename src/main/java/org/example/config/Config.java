@@ -3,6 +3,7 @@ package org.example.config;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -10,8 +11,24 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import static org.example.settings.Settings.DEFAULT_BACKPRESSURE_BLOCK_TIMEOUT_MS;
+import static org.example.settings.Settings.MAX_BACKPRESSURE_BLOCK_TIMEOUT_MS;
+import static org.example.settings.Settings.DEFAULT_BACKPRESSURE_POLICY;
+import static org.example.settings.Settings.DEFAULT_CLIENT_EXECUTOR;
+import static org.example.settings.Settings.DEFAULT_COMPACTED_TOPIC_MAX_BYTES;
+import static org.example.settings.Settings.DEFAULT_FILE_MAX_BYTES;
+import static org.example.settings.Settings.DEFAULT_FRAME_MODE;
+import static org.example.settings.Settings.DEFAULT_JOURNAL_RETENTION_BYTES;
+import static org.example.settings.Settings.DEFAULT_JOURNAL_SEGMENT_BYTES;
+import static org.example.settings.Settings.DEFAULT_LAST_VALUE_CACHE_BYTES;
+import static org.example.settings.Settings.DEFAULT_OUTBOUND_QUEUE_CAPACITY;
+import static org.example.settings.Settings.DEFAULT_OUTBOUND_QUEUE_MAX_BYTES;
+import static org.example.settings.Settings.DEFAULT_TRANSPORT;
+import static org.example.settings.Settings.DEFAULT_WRITE_BATCH_SIZE;
+
 @NoArgsConstructor
 @AllArgsConstructor
+@Builder(toBuilder = true)
 @Data
 public class Config {
 
@@ -30,9 +47,72 @@ public class Config {
     @JsonProperty("SizeLimit")
     private int sizeLimit;
 
+    @JsonProperty("FrameMode")
+    private String frameMode;
+
     @JsonProperty("AllowedIPAddresses")
     private List<String> allowedIPAddresses;
 
+    @JsonProperty("Transport")
+    private String transport;
+
+    @JsonProperty("EventLoopThreads")
+    private int eventLoopThreads;
+
+    @JsonProperty("ClientExecutor")
+    private String clientExecutor;
+
+    @JsonProperty("OutboundQueueCapacity")
+    private int outboundQueueCapacity;
+
+    @JsonProperty("WriterThreads")
+    private int writerThreads;
+
+    @JsonProperty("OutboundQueueMaxBytes")
+    private long outboundQueueMaxBytes;
+
+    @JsonProperty("BackpressurePolicy")
+    private String backpressurePolicy;
+
+    @JsonProperty("BackpressureBlockTimeoutMs")
+    private int backpressureBlockTimeoutMs;
+
+    @JsonProperty("ProcessingThreads")
+    private int processingThreads;
+
+    @JsonProperty("WriteBatchSize")
+    private int writeBatchSize;
+
+    @JsonProperty("WriteLingerMs")
+    private int writeLingerMs;
+
+    @JsonProperty("JournalDirectory")
+    private String journalDirectory;
+
+    @JsonProperty("JournalSegmentBytes")
+    private int journalSegmentBytes;
+
+    @JsonProperty("JournalRetentionBytes")
+    private long journalRetentionBytes;
+
+    @JsonProperty("JournalRetentionMs")
+    private long journalRetentionMs;
+
+    @JsonProperty("LastValueCacheBytes")
+    private long lastValueCacheBytes;
+
+    @JsonProperty("CompactedTopicMaxBytes")
+    private long compactedTopicMaxBytes;
+
+    @JsonProperty("CompactedTopicOffHeap")
+    private boolean compactedTopicOffHeap;
+
+    @JsonProperty("FileSpoolDirectory")
+    private String fileSpoolDirectory;
+
+    @JsonProperty("FileMaxBytes")
+    private long fileMaxBytes;
+
 
     public String getListenAddresses() {
         if (Objects.equals(listenAddresses, "*"))
@@ -48,4 +128,140 @@ public class Config {
 
         return allowedIPAddresses;
     }
+
+
+    public String getFrameMode() {
+        if (frameMode == null)
+            return DEFAULT_FRAME_MODE;
+
+        return frameMode;
+    }
+
+
+    public String getTransport() {
+        if (transport == null)
+            return DEFAULT_TRANSPORT;
+
+        return transport;
+    }
+
+
+    public int getEventLoopThreads() {
+        if (eventLoopThreads <= 0)
+            return Runtime.getRuntime().availableProcessors();
+
+        return eventLoopThreads;
+    }
+
+
+    public String getClientExecutor() {
+        if (clientExecutor == null)
+            return DEFAULT_CLIENT_EXECUTOR;
+
+        return clientExecutor;
+    }
+
+
+    public int getOutboundQueueCapacity() {
+        if (outboundQueueCapacity <= 0)
+            return DEFAULT_OUTBOUND_QUEUE_CAPACITY;
+
+        return outboundQueueCapacity;
+    }
+
+
+    public long getOutboundQueueMaxBytes() {
+        if (outboundQueueMaxBytes <= 0)
+            return DEFAULT_OUTBOUND_QUEUE_MAX_BYTES;
+
+        return outboundQueueMaxBytes;
+    }
+
+
+    public String getBackpressurePolicy() {
+        if (backpressurePolicy == null)
+            return DEFAULT_BACKPRESSURE_POLICY;
+
+        return backpressurePolicy;
+    }
+
+
+    public int getBackpressureBlockTimeoutMs() {
+        if (backpressureBlockTimeoutMs <= 0)
+            return DEFAULT_BACKPRESSURE_BLOCK_TIMEOUT_MS;
+
+        return Math.min(backpressureBlockTimeoutMs, MAX_BACKPRESSURE_BLOCK_TIMEOUT_MS);
+    }
+
+
+    public int getProcessingThreads() {
+        if (processingThreads <= 0)
+            return Runtime.getRuntime().availableProcessors();
+
+        return processingThreads;
+    }
+
+
+    public int getWriteBatchSize() {
+        if (writeBatchSize <= 0)
+            return DEFAULT_WRITE_BATCH_SIZE;
+
+        return writeBatchSize;
+    }
+
+
+    public String getJournalDirectory() {
+        if (journalDirectory == null || journalDirectory.isBlank())
+            return null;
+
+        return journalDirectory;
+    }
+
+
+    public int getJournalSegmentBytes() {
+        if (journalSegmentBytes <= 0)
+            return DEFAULT_JOURNAL_SEGMENT_BYTES;
+
+        return journalSegmentBytes;
+    }
+
+
+    public long getJournalRetentionBytes() {
+        if (journalRetentionBytes <= 0)
+            return DEFAULT_JOURNAL_RETENTION_BYTES;
+
+        return journalRetentionBytes;
+    }
+
+
+    public long getLastValueCacheBytes() {
+        if (lastValueCacheBytes <= 0)
+            return DEFAULT_LAST_VALUE_CACHE_BYTES;
+
+        return lastValueCacheBytes;
+    }
+
+
+    public long getCompactedTopicMaxBytes() {
+        if (compactedTopicMaxBytes <= 0)
+            return DEFAULT_COMPACTED_TOPIC_MAX_BYTES;
+
+        return compactedTopicMaxBytes;
+    }
+
+
+    public String getFileSpoolDirectory() {
+        if (fileSpoolDirectory == null || fileSpoolDirectory.isBlank())
+            return System.getProperty("java.io.tmpdir");
+
+        return fileSpoolDirectory;
+    }
+
+
+    public long getFileMaxBytes() {
+        if (fileMaxBytes <= 0)
+            return DEFAULT_FILE_MAX_BYTES;
+
+        return fileMaxBytes;
+    }
 }
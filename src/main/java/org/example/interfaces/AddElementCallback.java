@@ -1,5 +0,0 @@
-package org.example.interfaces;
-
-public interface AddElementCallback {
-    void onElementAdded();
-}
\ No newline at end of file
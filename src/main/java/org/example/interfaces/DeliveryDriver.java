@@ -0,0 +1,9 @@
+package org.example.interfaces;
+
+import org.example.client.SocketClient;
+
+public interface DeliveryDriver {
+
+    void scheduleFlush(SocketClient client);
+
+}
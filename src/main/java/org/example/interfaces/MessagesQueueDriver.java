@@ -1,14 +1,12 @@
 package org.example.interfaces;
 
 import org.example.client.ClientThread;
-import org.example.server.receive_message.ReceivedMessage;
+import org.example.server.messages_to_send.Notification;
 
 import java.util.List;
 
 public interface MessagesQueueDriver {
 
-    ReceivedMessage pollMessage();
-
-    void addMessageToSendQueue(String content, List<ClientThread> recipients);
+    List<ClientThread> addMessageToSendQueue(Notification notification);
 
 }
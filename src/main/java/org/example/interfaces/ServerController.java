@@ -2,6 +2,10 @@ package org.example.interfaces;
 
 import org.example.client.ClientThread;
 import org.example.config.Config;
+import org.example.server.CarrierPinningMonitor;
+import org.example.server.journal.JournalStore;
+import org.example.server.messages_to_send.WriteStats;
+import org.example.server.topics.LastValueCache;
 import org.example.server.topics.TopicData;
 
 import java.util.List;
@@ -11,11 +15,19 @@ public interface ServerController {
 
     Map<String, TopicData> getTopics();
 
-    Object getTopicSynchronizer();
-
     List<ClientThread> getConnectedClients();
 
     Config getServerConfig();
 
+    String getServerId();
+
+    CarrierPinningMonitor getCarrierPinningMonitor();
+
+    WriteStats getWriteStats();
+
+    JournalStore getJournalStore();
+
+    LastValueCache getLastValueCache();
+
     void stopServer();
 }
@@ -1,30 +1,42 @@
 package org.example.interfaces;
 
 import org.example.client.ClientThread;
+import org.example.server.messages_to_send.SharedDelivery;
+import org.example.server.topics.ClientTopics;
+import org.example.server.topics.SubscriptionOptions;
 import org.example.server.topics.TopicData;
 
+import java.util.List;
 import java.util.Map;
 
 public interface TopicsDriver {
 
-    void addTopic(String topicName, TopicData topicData);
+    boolean addTopic(String topicName, TopicData topicData);
 
     void removeTopic(String topicName);
 
     boolean topicExists(String topicName);
 
-    boolean producerExists(String producerId);
+    ClientThread getProducer(String producerId);
 
-    void addSubscriber(String topicName, ClientThread subscriber);
+    boolean addSubscriber(String topicName, ClientThread subscriber, SubscriptionOptions subscriptionOptions);
+
+    int countMatchingTopics(String pattern);
+
+    void redeliverShared(List<SharedDelivery> deliveries);
 
     TopicData getTopic(String topicName);
 
     boolean isSubscriberOrProducer(String topicNameToSkip, ClientThread client);
 
+    ClientTopics getClientTopics(ClientThread client);
+
     void unregisterTopic(String topicName);
 
     void unregisterSubscription(String topicName, ClientThread client);
 
+    void unregisterClient(ClientThread client);
+
     boolean isTopicProducer(ClientThread client, String topicName);
 
     boolean isTopicSubscriber(ClientThread client, String topicName);
@@ -0,0 +1,87 @@
+package org.example.server;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.example.settings.Settings.PINNING_EVENT_THRESHOLD_MS;
+
+public class CarrierPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final AtomicLong pinnedEvents;
+    private final AtomicLong pinnedNanos;
+    private final AtomicReference<String> lastPinnedFrame;
+    private RecordingStream recordingStream;
+
+    public CarrierPinningMonitor() {
+        this.pinnedEvents = new AtomicLong();
+        this.pinnedNanos = new AtomicLong();
+        this.lastPinnedFrame = new AtomicReference<>("-");
+    }
+
+
+    public synchronized void start() {
+        if (recordingStream != null)
+            return;
+
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(PINNING_EVENT_THRESHOLD_MS))
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+
+    public synchronized void stop() {
+        if (recordingStream == null)
+            return;
+
+        recordingStream.close();
+        recordingStream = null;
+    }
+
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null)
+            return;
+
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun."))
+                continue;
+
+            lastPinnedFrame.set(type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber());
+            return;
+        }
+    }
+
+
+    public long getPinnedEvents() {
+        return pinnedEvents.get();
+    }
+
+
+    public Duration getPinnedTime() {
+        return Duration.ofNanos(pinnedNanos.get());
+    }
+
+
+    public String getLastPinnedFrame() {
+        return lastPinnedFrame.get();
+    }
+
+}
@@ -1,51 +1,58 @@
 package org.example.server;
 
 import org.apache.commons.net.util.SubnetUtils;
-import org.example.client.ClientThread;
 import org.example.config.Config;
 import org.example.interfaces.ClientsListDriver;
+import org.example.interfaces.DeliveryDriver;
 import org.example.interfaces.ReceiveDriver;
 import org.example.interfaces.ServerController;
 import org.example.interfaces.TopicsDriver;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.messages_to_send.OutboundQueue;
 
-import java.io.IOException;
-import java.net.*;
+import java.net.InetAddress;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-public class CommunicationThread extends Thread {
-
-    private final int port;
-    private final String listenAddresses;
-    private final int timeout;
-    private final int sizeLimit;
-    private final List<String> allowedIPAddresses;
-
-    private final ServerSocket serverSocket;
-    private final ClientsListDriver clientsListDriver;
-    private final ReceiveDriver receiveDriver;
-    private final TopicsDriver topicsDriver;
-    private final ServerController serverController;
-    private final AtomicBoolean running;
-
-    public CommunicationThread(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver, ServerController serverController, Config config) throws IOException {
+public abstract class CommunicationThread extends Thread {
+
+    protected final int port;
+    protected final String listenAddresses;
+    protected final int timeout;
+    protected final int sizeLimit;
+    protected final String frameMode;
+    protected final int outboundQueueCapacity;
+    protected final long outboundQueueMaxBytes;
+    protected final BackpressurePolicy backpressurePolicy;
+    protected final int backpressureBlockTimeoutMs;
+    protected final List<String> allowedIPAddresses;
+
+    protected final ClientsListDriver clientsListDriver;
+    protected final ReceiveDriver receiveDriver;
+    protected final TopicsDriver topicsDriver;
+    protected final ServerController serverController;
+    protected final DeliveryDriver deliveryDriver;
+    protected final AtomicBoolean running;
+
+    protected CommunicationThread(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver, ServerController serverController, DeliveryDriver deliveryDriver, Config config) {
         this.listenAddresses = config.getListenAddresses();
         this.port = config.getListenPort();
         this.timeout = config.getTimeOut();
         this.sizeLimit = config.getSizeLimit();
+        this.frameMode = config.getFrameMode();
+        this.outboundQueueCapacity = config.getOutboundQueueCapacity();
+        this.outboundQueueMaxBytes = config.getOutboundQueueMaxBytes();
+        this.backpressurePolicy = BackpressurePolicy.fromValue(config.getBackpressurePolicy()).orElseThrow();
+        this.backpressureBlockTimeoutMs = config.getBackpressureBlockTimeoutMs();
         this.allowedIPAddresses = config.getAllowedIPAddresses();
 
         this.clientsListDriver = clientsListDriver;
         this.receiveDriver = receiveDriver;
         this.topicsDriver = topicsDriver;
         this.serverController = serverController;
+        this.deliveryDriver = deliveryDriver;
 
         this.running = new AtomicBoolean(false);
-
-        serverSocket = new ServerSocket();
-        serverSocket.setSoTimeout(timeout);
-
-        bindSocket();
     }
 
 
@@ -56,56 +63,22 @@ public class CommunicationThread extends Thread {
     }
 
 
-    private void bindSocket() throws IOException {
-        SocketAddress socketPort = new InetSocketAddress(listenAddresses, port);
-        serverSocket.bind(socketPort);
-    }
+    protected abstract void listenForConnections();
 
 
-    private void listenForConnections() {
-        while (running.get()) {
-            Socket clientSocket;
-
-            try {
-                clientSocket = acceptConnection();
-                System.out.println("New client: " + clientSocket.getRemoteSocketAddress());
-
-                if (!isAllowedIPAddress(clientSocket)) {
-                    System.out.println("IP address not allowed: " + clientSocket.getRemoteSocketAddress());
-                    clientSocket.close();
-                    continue;
-                }
-
-            } catch (SocketTimeoutException ignored) {
-                continue;
-            } catch (IOException e) {
-                e.printStackTrace();
-                stopThread();
-                break;
-            }
-
-            try {
-                clientSocket.setSoTimeout(this.timeout);
-                ClientThread clientThread = spawnClientThread(clientSocket);
-                clientsListDriver.addClient(clientThread);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+    public abstract void stopThread();
 
-    }
 
-
-    private Socket acceptConnection() throws IOException {
-        return serverSocket.accept();
+    protected OutboundQueue createOutboundQueue() {
+        return new OutboundQueue(outboundQueueCapacity, outboundQueueMaxBytes, backpressurePolicy, backpressureBlockTimeoutMs);
     }
 
 
-    private boolean isAllowedIPAddress(Socket clientSocket) {
+    protected boolean isAllowedIPAddress(InetAddress clientAddress) {
         if (allowedIPAddresses.isEmpty())
             return true;
 
-        String clientIP = clientSocket.getInetAddress().getHostAddress();
+        String clientIP = clientAddress.getHostAddress();
 
         for (String cidr : allowedIPAddresses) {
             if (isIPInCIDR(clientIP, cidr))
@@ -125,27 +98,4 @@ public class CommunicationThread extends Thread {
         }
     }
 
-
-    private ClientThread spawnClientThread(Socket clientSocket) throws IOException {
-        ClientThread clientThread = new ClientThread(clientsListDriver, receiveDriver, topicsDriver, serverController, clientSocket, sizeLimit);
-        Thread thread = new Thread(clientThread);
-        thread.start();
-
-        return clientThread;
-    }
-
-
-    public synchronized void stopThread() {
-        if (!running.get())
-            return;
-
-        running.set(false);
-
-        try {
-            serverSocket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
 }
@@ -0,0 +1,107 @@
+package org.example.server;
+
+import org.example.client.NioClient;
+import org.example.client.framing.FrameCodec;
+import org.example.config.Config;
+import org.example.interfaces.ClientsListDriver;
+import org.example.interfaces.DeliveryDriver;
+import org.example.interfaces.ReceiveDriver;
+import org.example.interfaces.ServerController;
+import org.example.interfaces.TopicsDriver;
+import org.example.server.nio.EventLoop;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+public class NioCommunicationThread extends CommunicationThread {
+
+    private final ServerSocketChannel serverChannel;
+    private final EventLoop[] eventLoops;
+    private int nextEventLoop;
+
+    public NioCommunicationThread(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver, ServerController serverController, DeliveryDriver deliveryDriver, Config config) throws IOException {
+        super(clientsListDriver, receiveDriver, topicsDriver, serverController, deliveryDriver, config);
+
+        this.eventLoops = new EventLoop[config.getEventLoopThreads()];
+        for (int i = 0; i < eventLoops.length; i++)
+            eventLoops[i] = new EventLoop(i, timeout, config.getWriteLingerMs());
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(listenAddresses, port));
+    }
+
+
+    @Override
+    protected void listenForConnections() {
+        for (EventLoop eventLoop : eventLoops)
+            eventLoop.start();
+
+        while (running.get()) {
+            SocketChannel clientChannel;
+
+            try {
+                clientChannel = serverChannel.accept();
+                Socket clientSocket = clientChannel.socket();
+                System.out.println("New client: " + clientSocket.getRemoteSocketAddress());
+
+                if (!isAllowedIPAddress(clientSocket.getInetAddress())) {
+                    System.out.println("IP address not allowed: " + clientSocket.getRemoteSocketAddress());
+                    clientChannel.close();
+                    continue;
+                }
+
+            } catch (ClosedChannelException e) {
+                stopThread();
+                break;
+            } catch (IOException e) {
+                e.printStackTrace();
+                stopThread();
+                break;
+            }
+
+            try {
+                NioClient client = spawnClient(clientChannel);
+                clientsListDriver.addClient(client);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+
+    private NioClient spawnClient(SocketChannel clientChannel) throws IOException {
+        clientChannel.configureBlocking(false);
+
+        EventLoop eventLoop = eventLoops[nextEventLoop];
+        nextEventLoop = (nextEventLoop + 1) % eventLoops.length;
+
+        NioClient client = new NioClient(clientsListDriver, receiveDriver, topicsDriver, serverController, clientChannel, eventLoop,
+                FrameCodec.create(frameMode, sizeLimit), createOutboundQueue());
+        eventLoop.register(client);
+
+        return client;
+    }
+
+
+    @Override
+    public synchronized void stopThread() {
+        if (!running.get())
+            return;
+
+        running.set(false);
+
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        for (EventLoop eventLoop : eventLoops)
+            eventLoop.stopThread();
+    }
+
+}
@@ -1,47 +1,63 @@
 package org.example.server;
 
 import org.example.client.ClientThread;
+import org.example.client.ServerClient;
+import org.example.client.SocketClient;
 import org.example.config.Config;
 import org.example.config.ConfigLoader;
 import org.example.exceptions.ValidationException;
 import org.example.interfaces.*;
-import org.example.server.messages_to_send.MessagesToSendQueue;
+import org.example.server.journal.JournalStore;
+import org.example.server.messages_to_send.DeliveryService;
 import org.example.server.messages_to_send.Notification;
+import org.example.server.messages_to_send.SharedDelivery;
+import org.example.server.messages_to_send.WriteStats;
+import org.example.server.receive_message.MessageProcessingStage;
 import org.example.server.receive_message.ReceivedMessage;
-import org.example.server.receive_message.ReceivedMessagesQueue;
-import org.example.server.receive_message.ReceivedMessagesQueueMonitorThread;
 import org.example.server.receive_message.withdraw.SubscriptionRemoveData;
+import org.example.server.topics.ClientTopics;
+import org.example.server.topics.LastValueCache;
+import org.example.server.topics.SubscriptionOptions;
 import org.example.server.topics.TopicData;
+import org.example.server.topics.TopicRegistry;
 import org.example.utilities.Validator;
 
 import java.io.IOException;
 import java.util.*;
 
-public class Server implements Runnable, ClientsListDriver, ReceiveDriver, MessagesQueueDriver, TopicsDriver, ServerController {
+public class Server implements Runnable, ClientsListDriver, ReceiveDriver, MessagesQueueDriver, TopicsDriver, ServerController, DeliveryDriver {
     private final Config config;
+    private final Config configSnapshot;
     private final CommunicationThread communicationThread;
     private final UIThread uiThread;
-    private final ReceivedMessagesQueueMonitorThread receivedMessagesQueueMonitorThread;
+    private final MessageProcessingStage messageProcessingStage;
+    private final CarrierPinningMonitor carrierPinningMonitor;
+    private final WriteStats writeStats;
+    private final JournalStore journalStore;
+    private final LastValueCache lastValueCache;
 
     private final Set<ClientThread> clientList;
 
-    private final Map<String, TopicData> registeredTopics;                         // LT
-    private final MessagesToSendQueue messagesToSendQueue;                         // KKW
-    private final ReceivedMessagesQueue<ReceivedMessage> receivedMessagesQueue;    // KKO
+    private final TopicRegistry topicRegistry;                                     // LT
+    private final DeliveryService deliveryService;                                 // KKW
 
 
     public Server(Config config) throws IOException, ValidationException {
         this.config = new ConfigLoader().loadConfig();
         validateConfig();
+        this.configSnapshot = this.config.toBuilder().build();
 
-        this.communicationThread = new CommunicationThread(this, this, this, this, config);
-        this.receivedMessagesQueueMonitorThread = new ReceivedMessagesQueueMonitorThread(this, this, this);
+        this.communicationThread = createCommunicationThread();
+        this.messageProcessingStage = new MessageProcessingStage(config.getProcessingThreads(), this, this, this);
         this.uiThread = new UIThread(this);
+        this.carrierPinningMonitor = new CarrierPinningMonitor();
+        this.writeStats = new WriteStats();
+        this.journalStore = new JournalStore(config);
+        this.lastValueCache = new LastValueCache(config.getLastValueCacheBytes());
 
         this.clientList = Collections.synchronizedSet(new HashSet<>());
-        this.registeredTopics = Collections.synchronizedMap(new HashMap<>());
-        this.messagesToSendQueue = new MessagesToSendQueue(getAddElementCallback());
-        this.receivedMessagesQueue = new ReceivedMessagesQueue<>();
+        this.topicRegistry = new TopicRegistry();
+        this.deliveryService = new DeliveryService(config.getWriterThreads(), config.getWriteLingerMs());
 
         registerSpecialLogsTopic();
     }
@@ -68,35 +84,51 @@ public class Server implements Runnable, ClientsListDriver, ReceiveDriver, Messa
 
         if (!Validator.validateCIDRList(allowedIPAddresses))
             throw new ValidationException("Invalid allowed ip addresses");
+
+        if (!Validator.isValidFrameMode(config.getFrameMode()))
+            throw new ValidationException("Invalid frame mode");
+
+        if (!Validator.isValidTransport(config.getTransport()))
+            throw new ValidationException("Invalid transport");
+
+        if (!Validator.isValidClientExecutor(config.getClientExecutor()))
+            throw new ValidationException("Invalid client executor");
+
+        if (!Validator.isValidBackpressurePolicy(config.getBackpressurePolicy()))
+            throw new ValidationException("Invalid backpressure policy");
+
+        if (!Validator.isValidWriteLinger(config.getWriteLingerMs()))
+            throw new ValidationException("Invalid write linger");
+
+        if (!Validator.isValidJournalSegmentSize(config.getJournalSegmentBytes(), sizeLimit))
+            throw new ValidationException("Invalid journal segment size");
+
+        if (!Validator.isValidFileMaxBytes(config.getFileMaxBytes()))
+            throw new ValidationException("Invalid file max bytes");
     }
 
 
-    private void startServerThreads() {
-        uiThread.start();
-        communicationThread.start();
-        receivedMessagesQueueMonitorThread.start();
+    private CommunicationThread createCommunicationThread() throws IOException {
+        return switch (config.getTransport()) {
+            case "nio" -> new NioCommunicationThread(this, this, this, this, this, config);
+            default -> new SocketCommunicationThread(this, this, this, this, this, config);
+        };
     }
 
 
-    private AddElementCallback getAddElementCallback() {
-        return () -> {
-            Notification notification = messagesToSendQueue.poll();
+    private void startServerThreads() {
+        if (config.getClientExecutor().equals("virtual"))
+            carrierPinningMonitor.start();
 
-            for (ClientThread clientThread : notification.recipients()) {
-                try {
-                    clientThread.sendMessage(notification.content());
-                } catch (IOException e) {
-                    System.err.println("Error sending message to " + clientThread);
-                    clientThread.disconnect();
-                }
-            }
-        };
+        uiThread.start();
+        communicationThread.start();
+        messageProcessingStage.start();
     }
 
 
     private void registerSpecialLogsTopic() {
 
-        ClientThread server = new ClientThread(config.getServerId());
+        ClientThread server = new ServerClient(config.getServerId());
         addTopic("logs", new TopicData(server));
     }
 
@@ -129,7 +161,7 @@ public class Server implements Runnable, ClientsListDriver, ReceiveDriver, Messa
 
     @Override
     public void addNewMessage(ReceivedMessage receivedMessage) {
-        receivedMessagesQueue.add(receivedMessage);
+        messageProcessingStage.submit(receivedMessage);
     }
 
 
@@ -137,15 +169,17 @@ public class Server implements Runnable, ClientsListDriver, ReceiveDriver, Messa
 
 
     @Override
-    public ReceivedMessage pollMessage() {
-        return receivedMessagesQueue.poll();
+    public List<ClientThread> addMessageToSendQueue(Notification notification) {
+        return deliveryService.publish(notification);
     }
 
 
+    /* DeliveryDriver */
+
+
     @Override
-    public void addMessageToSendQueue(String content, List<ClientThread> recipients) {
-        Notification notification = new Notification(content, recipients);
-        messagesToSendQueue.add(notification);
+    public void scheduleFlush(SocketClient client) {
+        deliveryService.scheduleFlush(client);
     }
 
 
@@ -153,88 +187,79 @@ public class Server implements Runnable, ClientsListDriver, ReceiveDriver, Messa
 
 
     @Override
-    public void addTopic(String topicName, TopicData topicData) {
-        registeredTopics.put(topicName, topicData);
+    public boolean addTopic(String topicName, TopicData topicData) {
+        if (!topicRegistry.addTopic(topicName, topicData))
+            return false;
 
-        synchronized (registeredTopics) {
-            System.out.println("Added new topic: " + topicName);
-            for (Map.Entry<String, TopicData> entry : registeredTopics.entrySet()) {
-                System.out.print(entry.getKey() + ": " + entry.getValue().getSubscribers() + "\n");
-            }
+        System.out.println("Added new topic: " + topicName);
+        for (Map.Entry<String, TopicData> entry : topicRegistry.getTopics().entrySet()) {
+            System.out.print(entry.getKey() + ": " + entry.getValue().getSubscribers() + "\n");
         }
+
+        return true;
     }
 
 
     @Override
     public void removeTopic(String topicName) {
-        registeredTopics.remove(topicName);
+        topicRegistry.removeTopic(topicName);
     }
 
 
     @Override
     public boolean topicExists(String topicName) {
-        synchronized (registeredTopics) {
-            return registeredTopics.containsKey(topicName);
-        }
+        return topicRegistry.topicExists(topicName);
     }
 
 
     @Override
-    public boolean producerExists(String producerId) {
-        synchronized (registeredTopics) {
-            for (TopicData topicData : registeredTopics.values()) {
-                if (topicData.getProducer().getClientId().equalsIgnoreCase(producerId))
-                    return true;
-            }
+    public ClientThread getProducer(String producerId) {
+        return topicRegistry.getProducer(producerId);
+    }
 
+
+    @Override
+    public boolean addSubscriber(String topicName, ClientThread subscriber, SubscriptionOptions subscriptionOptions) {
+        if (!topicRegistry.addSubscriber(topicName, subscriber, subscriptionOptions))
             return false;
-        }
+
+        System.out.println("\nAdded new subscriber: " + subscriber + " to: " + topicName);
+        return true;
     }
 
 
     @Override
-    public void addSubscriber(String topicName, ClientThread subscriber) {
-        synchronized (registeredTopics) {
-            TopicData topicData = getTopic(topicName);
-            topicData.getSubscribers().add(subscriber);
-            System.out.println("\nAdded new subscriber: " + subscriber + " to: " + topicName);
-        }
+    public int countMatchingTopics(String pattern) {
+        return topicRegistry.countMatchingTopics(pattern);
     }
 
 
     @Override
     public TopicData getTopic(String topicName) {
-        synchronized (registeredTopics) {
-            TopicData topicData = registeredTopics.get(topicName);
-            return new TopicData(topicData.getProducer(), topicData.getSubscribers());
-        }
+        return topicRegistry.getTopic(topicName);
     }
 
 
     @Override
     public boolean isSubscriberOrProducer(String topicNameToSkip, ClientThread client) {
-        if (topicNameToSkip == null)
-            topicNameToSkip = "";
-
-        Map<String, TopicData> topics = getTopics();
-
-        for (Map.Entry<String, TopicData> entry : topics.entrySet()) {
-            if (entry.getKey().equals(topicNameToSkip))
-                continue;
-
-            TopicData topicData = entry.getValue();
-            if (client.equals(topicData.getProducer()) || topicData.getSubscribers().contains(client))
-                return true;
+        return topicRegistry.isSubscriberOrProducer(topicNameToSkip, client);
+    }
 
-        }
 
-        return false;
+    @Override
+    public ClientTopics getClientTopics(ClientThread client) {
+        return topicRegistry.getClientTopics(client);
     }
 
 
     @Override
     public void unregisterTopic(String topicName) {
-        TopicData topicData = getTopic(topicName);
+        TopicData topicData = topicRegistry.removeTopic(topicName);
+
+        if (topicData == null)
+            return;
+
+        lastValueCache.remove(topicName);
 
         // Subscribers
         SubscriptionRemoveData subscriptionRemoveData = removeSubscribers(topicData, topicName);
@@ -245,21 +270,52 @@ public class Server implements Runnable, ClientsListDriver, ReceiveDriver, Messa
 
         if (!isSubscriberOrProducer(topicName, producer))
             producer.disconnect();
+    }
+
+
+    @Override
+    public void redeliverShared(List<SharedDelivery> deliveries) {
+        deliveryService.scheduleRedelivery(() -> redeliver(deliveries));
+    }
+
+
+    private void redeliver(List<SharedDelivery> deliveries) {
+        int redelivered = 0;
+
+        for (SharedDelivery delivery : deliveries) {
+            TopicData topicData = getTopic(delivery.topic());
+            ClientThread member = topicData == null ? null : topicData.pickGroupMember(delivery.group(), delivery.headers());
+
+            if (member != null && !member.getOutboundQueue().isClosed() && deliveryService.redeliver(delivery, member))
+                redelivered++;
+        }
 
-        removeTopic(topicName);
+        System.out.println("Redelivered " + redelivered + " of " + deliveries.size() + " shared group messages");
     }
 
 
     @Override
     public void unregisterSubscription(String topicName, ClientThread client) {
-        TopicData topicData = getTopic(topicName);
-        topicData.getSubscribers().remove(client);
+        topicRegistry.removeSubscriber(topicName, client);
 
         if (!isSubscriberOrProducer(null, client))
             client.disconnect();
     }
 
 
+    @Override
+    public void unregisterClient(ClientThread client) {
+        Map<String, TopicData> removedTopics = topicRegistry.removeClient(client);
+
+        for (Map.Entry<String, TopicData> entry : removedTopics.entrySet()) {
+            lastValueCache.remove(entry.getKey());
+
+            SubscriptionRemoveData subscriptionRemoveData = removeSubscribers(entry.getValue(), entry.getKey());
+            disconnectClients(subscriptionRemoveData.getClientsToDisconnect());
+        }
+    }
+
+
     @Override
     public boolean isTopicProducer(ClientThread client, String topicName) {
         TopicData topicData = getTopic(topicName);
@@ -308,50 +364,60 @@ public class Server implements Runnable, ClientsListDriver, ReceiveDriver, Messa
 
     @Override
     public Map<String, TopicData> getTopics() {
-        synchronized (registeredTopics) {
-            HashMap<String, TopicData> topicsCopy = new HashMap<>();
+        return topicRegistry.getTopics();
+    }
 
-            for (Map.Entry<String, TopicData> entry : registeredTopics.entrySet()) {
-                String title = entry.getKey();
-                TopicData topicData = new TopicData(entry.getValue().getProducer(), entry.getValue().getSubscribers());
-                topicsCopy.put(title, topicData);
-            }
 
-            return topicsCopy;
-        }
+    @Override
+    public List<ClientThread> getConnectedClients() {
+        return new ArrayList<>(clientList);
     }
 
 
     @Override
-    public Object getTopicSynchronizer() {
-        return registeredTopics;
+    public Config getServerConfig() {
+        return configSnapshot;
     }
 
 
     @Override
-    public List<ClientThread> getConnectedClients() {
-        return new ArrayList<>(clientList);
+    public String getServerId() {
+        return config.getServerId();
     }
 
 
     @Override
-    public Config getServerConfig() {
-        return new Config(
-                config.getServerId(),
-                config.getListenAddresses(),
-                config.getListenPort(),
-                config.getTimeOut(),
-                config.getSizeLimit(),
-                config.getAllowedIPAddresses()
-        );
+    public CarrierPinningMonitor getCarrierPinningMonitor() {
+        return carrierPinningMonitor;
+    }
+
+
+    @Override
+    public WriteStats getWriteStats() {
+        return writeStats;
+    }
+
+
+    @Override
+    public JournalStore getJournalStore() {
+        return journalStore;
+    }
+
+
+    @Override
+    public LastValueCache getLastValueCache() {
+        return lastValueCache;
     }
 
 
     public void stopServer() {
         clientList.forEach(ClientThread::stopThread);
+        carrierPinningMonitor.stop();
 
         uiThread.stopThread();
         communicationThread.stopThread();
-        receivedMessagesQueueMonitorThread.stopThread();
+        messageProcessingStage.stop();
+        journalStore.close();
+        deliveryService.shutdown();
     }
 }
@@ -0,0 +1,110 @@
+package org.example.server;
+
+import org.example.client.ClientThread;
+import org.example.client.SocketClient;
+import org.example.client.framing.FrameCodec;
+import org.example.config.Config;
+import org.example.interfaces.ClientsListDriver;
+import org.example.interfaces.DeliveryDriver;
+import org.example.interfaces.ReceiveDriver;
+import org.example.interfaces.ServerController;
+import org.example.interfaces.TopicsDriver;
+
+import java.io.IOException;
+import java.net.*;
+
+public class SocketCommunicationThread extends CommunicationThread {
+
+    private final ServerSocket serverSocket;
+    private final Thread.Builder clientThreadBuilder;
+
+    public SocketCommunicationThread(ClientsListDriver clientsListDriver, ReceiveDriver receiveDriver, TopicsDriver topicsDriver, ServerController serverController, DeliveryDriver deliveryDriver, Config config) throws IOException {
+        super(clientsListDriver, receiveDriver, topicsDriver, serverController, deliveryDriver, config);
+
+        clientThreadBuilder = createClientThreadBuilder(config.getClientExecutor());
+
+        serverSocket = new ServerSocket();
+        serverSocket.setSoTimeout(timeout);
+
+        bindSocket();
+    }
+
+
+    private Thread.Builder createClientThreadBuilder(String clientExecutor) {
+        return switch (clientExecutor) {
+            case "virtual" -> Thread.ofVirtual().name("client-", 0);
+            default -> Thread.ofPlatform().name("client-", 0);
+        };
+    }
+
+
+    private void bindSocket() throws IOException {
+        SocketAddress socketPort = new InetSocketAddress(listenAddresses, port);
+        serverSocket.bind(socketPort);
+    }
+
+
+    @Override
+    protected void listenForConnections() {
+        while (running.get()) {
+            Socket clientSocket;
+
+            try {
+                clientSocket = acceptConnection();
+                System.out.println("New client: " + clientSocket.getRemoteSocketAddress());
+
+                if (!isAllowedIPAddress(clientSocket.getInetAddress())) {
+                    System.out.println("IP address not allowed: " + clientSocket.getRemoteSocketAddress());
+                    clientSocket.close();
+                    continue;
+                }
+
+            } catch (SocketTimeoutException ignored) {
+                continue;
+            } catch (IOException e) {
+                e.printStackTrace();
+                stopThread();
+                break;
+            }
+
+            try {
+                clientSocket.setSoTimeout(this.timeout);
+                ClientThread clientThread = spawnClientThread(clientSocket);
+                clientsListDriver.addClient(clientThread);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+    }
+
+
+    private Socket acceptConnection() throws IOException {
+        return serverSocket.accept();
+    }
+
+
+    private ClientThread spawnClientThread(Socket clientSocket) throws IOException {
+        SocketClient clientThread = new SocketClient(clientsListDriver, receiveDriver, topicsDriver, serverController, deliveryDriver, clientSocket,
+                FrameCodec.create(frameMode, sizeLimit), createOutboundQueue());
+        clientThreadBuilder.start(clientThread);
+
+        return clientThread;
+    }
+
+
+    @Override
+    public synchronized void stopThread() {
+        if (!running.get())
+            return;
+
+        running.set(false);
+
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -3,11 +3,16 @@ package org.example.server;
 import org.example.client.ClientThread;
 import org.example.config.Config;
 import org.example.interfaces.ServerController;
+import org.example.server.messages_to_send.OutboundQueue;
+import org.example.server.topics.LastValueCache;
 import org.example.server.topics.TopicData;
+import org.example.server.messages_to_send.WriteStats;
+import org.example.server.wire.WireFormat;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -126,33 +131,90 @@ public class UIThread extends Thread {
             addSubscribers(sb, entry.getValue().getSubscribers());
         }
 
+        addLastValueCache(sb, serverController.getLastValueCache());
         sb.append(headerAndFooter);
         return sb.toString();
     }
 
 
+    private void addLastValueCache(StringBuilder sb, LastValueCache lastValueCache) {
+        sb.append("\nLast-value cache: ").append(lastValueCache.getEntries()).append(" topics, ")
+                .append(lastValueCache.getUsedBytes()).append("/").append(lastValueCache.getMaxBytes()).append(" bytes, evictions: ")
+                .append(lastValueCache.getEvictions()).append("\n");
+
+        for (Map.Entry<String, Integer> entry : lastValueCache.getSizes().entrySet())
+            sb.append("\t- ").append(entry.getKey()).append(" (").append(entry.getValue()).append(" bytes)\n");
+    }
+
+
     private void addSubscribers(StringBuilder sb, Set<ClientThread> subscribers) {
-        for (ClientThread subscriber : subscribers)
-            sb.append("\t- ").append(subscriber.getClientId()).append("\n");
+        for (ClientThread subscriber : subscribers) {
+            OutboundQueue outboundQueue = subscriber.getOutboundQueue();
+            sb.append("\t- ").append(subscriber.getClientId())
+                    .append(" (lag: ").append(outboundQueue.size()).append(" messages, ")
+                    .append(outboundQueue.getQueuedBytes()).append(" bytes, dropped: ")
+                    .append(outboundQueue.getDroppedMessages()).append(", conflated: ")
+                    .append(outboundQueue.getConflatedMessages()).append(", policy: ")
+                    .append(outboundQueue.getPolicy().getValue()).append(")\n");
+        }
     }
 
 
     /* CONNECTIONS */
 
 
+    private void addWriteStats(StringBuilder sb, WriteStats writeStats) {
+        sb.append("Write syscalls: ").append(writeStats.getWrites())
+                .append(" messages=").append(writeStats.getMessages())
+                .append(" bytes=").append(writeStats.getBytes())
+                .append(String.format(" avg=%.2f msgs/syscall", writeStats.getAverageMessagesPerWrite()))
+                .append("\n");
+    }
+
+
     private void showConnections() {
         StringBuilder sb = new StringBuilder();
         List<ClientThread> connectedClients = serverController.getConnectedClients();
 
+        Config serverConfig = serverController.getServerConfig();
+        CarrierPinningMonitor pinningMonitor = serverController.getCarrierPinningMonitor();
+
         String headerAndFooter = "---------- [CONNECTIONS] ----------";
         sb.append(headerAndFooter).append("\n");
         sb.append(connectedClients).append("\n");
+        sb.append("Total: ").append(connectedClients.size()).append("\n");
+        sb.append("Transport: ").append(serverConfig.getTransport()).append("\n");
+        sb.append("ClientExecutor: ").append(serverConfig.getClientExecutor()).append("\n");
+        addWireFormats(sb, connectedClients);
+        addWriteStats(sb, serverController.getWriteStats());
+
+        if (serverConfig.getClientExecutor().equals("virtual")) {
+            sb.append("Carrier pinning events: ").append(pinningMonitor.getPinnedEvents()).append("\n");
+            sb.append("Carrier pinned time: ").append(pinningMonitor.getPinnedTime().toMillis()).append(" ms\n");
+            sb.append("Last pinned at: ").append(pinningMonitor.getLastPinnedFrame()).append("\n");
+        }
+
         sb.append(headerAndFooter);
 
         System.out.println(sb);
     }
 
 
+    private void addWireFormats(StringBuilder sb, List<ClientThread> connectedClients) {
+        Map<WireFormat, Integer> formats = new EnumMap<>(WireFormat.class);
+
+        for (WireFormat format : WireFormat.values())
+            formats.put(format, 0);
+
+        for (ClientThread client : connectedClients)
+            formats.merge(client.getWireFormat(), 1, Integer::sum);
+
+        sb.append("WireFormats:");
+        formats.forEach((format, count) -> sb.append(" ").append(format.getValue()).append("=").append(count));
+        sb.append("\n");
+    }
+
+
     /* DETAILS */
 
 
@@ -0,0 +1,22 @@
+package org.example.server.files;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.client.ClientThread;
+
+@Getter
+@Setter
+public class FileDelivery {
+
+    private final ClientThread subscriber;
+    private final FileTransfer transfer;
+    private long nextOffset;
+    private boolean beginSent;
+
+    public FileDelivery(ClientThread subscriber, FileTransfer transfer, long nextOffset) {
+        this.subscriber = subscriber;
+        this.transfer = transfer;
+        this.nextOffset = nextOffset;
+    }
+
+}
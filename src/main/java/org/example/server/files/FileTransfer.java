@@ -0,0 +1,93 @@
+package org.example.server.files;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+@Getter
+public class FileTransfer {
+
+    private final String topic;
+    private final String fileId;
+    private final String name;
+    private final long size;
+    private final String producerId;
+    private final Instant timestamp;
+    private final Path spoolPath;
+    private final FileChannel channel;
+
+    private long received;
+    private ByteBuffer content;
+    private long lastActivityNanos;
+
+
+    private FileTransfer(String topic, String fileId, String name, long size, String producerId, Instant timestamp, Path spoolPath) throws IOException {
+        this.topic = topic;
+        this.fileId = fileId;
+        this.name = name;
+        this.size = size;
+        this.producerId = producerId;
+        this.timestamp = timestamp;
+        this.spoolPath = spoolPath;
+        this.channel = FileChannel.open(spoolPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.lastActivityNanos = System.nanoTime();
+    }
+
+
+    public static FileTransfer create(Path spoolDirectory, String topic, String fileId, String name, long size,
+                                      String producerId, Instant timestamp) throws IOException {
+        Files.createDirectories(spoolDirectory);
+        Path spoolPath = Files.createTempFile(spoolDirectory, "transfer-", ".spool");
+        return new FileTransfer(topic, fileId, name, size, producerId, timestamp, spoolPath);
+    }
+
+
+    public void write(long offset, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = offset;
+
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+
+        received = offset + data.length;
+        lastActivityNanos = System.nanoTime();
+    }
+
+
+    public void complete() throws IOException {
+        content = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+        lastActivityNanos = System.nanoTime();
+    }
+
+
+    public boolean isComplete() {
+        return content != null;
+    }
+
+
+    public ByteBuffer slice(long offset, int length) {
+        return content.slice((int) offset, length);
+    }
+
+
+    public void touch() {
+        lastActivityNanos = System.nanoTime();
+    }
+
+
+    public void discard() {
+        try {
+            channel.close();
+            Files.deleteIfExists(spoolPath);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,304 @@
+package org.example.server.files;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.example.client.ClientThread;
+import org.example.config.Config;
+import org.example.interfaces.TopicsDriver;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.messages_to_send.OfferResult;
+import org.example.server.receive_message.Message;
+import org.example.server.receive_message.Payload;
+import org.example.server.receive_message.file.FileBeginPayload;
+import org.example.server.receive_message.file.FileChunkPayload;
+import org.example.server.receive_message.file.FileEndPayload;
+import org.example.server.wire.WireEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.settings.Settings.FILE_CHUNK_SIZE;
+import static org.example.settings.Settings.FILE_CLEANUP_INTERVAL_MS;
+import static org.example.settings.Settings.FILE_DELIVERY_POLL_MS;
+import static org.example.settings.Settings.FILE_DELIVERY_WINDOW_BYTES;
+import static org.example.settings.Settings.FILE_SPOOL_RETENTION_MS;
+import static org.example.settings.Settings.FILE_TRANSFER_IDLE_TIMEOUT_MS;
+
+public class FileTransferManager {
+
+    private final Path spoolDirectory;
+    private final long maxFileBytes;
+    private final int binaryChunkSize;
+    private final int inlineChunkSize;
+    private final WireEncoder encoder;
+    private final TopicsDriver topicsDriver;
+    private final Map<String, FileTransfer> transfers;
+    private final List<FileDelivery> deliveries;
+
+
+    public FileTransferManager(Config config, WireEncoder encoder, TopicsDriver topicsDriver) {
+        this.spoolDirectory = Path.of(config.getFileSpoolDirectory());
+        this.maxFileBytes = config.getFileMaxBytes();
+        this.binaryChunkSize = Math.min(FILE_CHUNK_SIZE, config.getSizeLimit());
+        this.inlineChunkSize = Math.min(FILE_CHUNK_SIZE, config.getSizeLimit() / 2);
+        this.encoder = encoder;
+        this.topicsDriver = topicsDriver;
+        this.transfers = new HashMap<>();
+        this.deliveries = new ArrayList<>();
+    }
+
+
+    private static String key(String topic, String fileId) {
+        return topic + '\u0000' + fileId;
+    }
+
+
+    public Optional<String> begin(String topic, String producerId, Message message) {
+        FileBeginPayload payload = (FileBeginPayload) message.getPayload();
+
+        if (payload.getSize() > maxFileBytes)
+            return Optional.of("File exceeds size limit");
+
+        String key = key(topic, payload.getFileId());
+        if (transfers.containsKey(key))
+            return Optional.of("File transfer already exists");
+
+        try {
+            transfers.put(key, FileTransfer.create(spoolDirectory, topic, payload.getFileId(), payload.getName(),
+                    payload.getSize(), producerId, message.getTimestamp()));
+            return Optional.empty();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.of("Cannot create spool file");
+        }
+    }
+
+
+    public Optional<String> write(String topic, FileChunkPayload payload) {
+        FileTransfer transfer = transfers.get(key(topic, payload.getFileId()));
+
+        if (transfer == null)
+            return Optional.of("Unknown file transfer");
+
+        if (transfer.isComplete())
+            return Optional.of("File transfer already completed");
+
+        long offset = payload.getOffset();
+        byte[] data = payload.getData();
+
+        if (offset + data.length <= transfer.getReceived())
+            return Optional.empty();
+
+        if (offset != transfer.getReceived())
+            return Optional.of("Unexpected chunk offset, expected " + transfer.getReceived());
+
+        if (offset + data.length > transfer.getSize())
+            return Optional.of("Chunk exceeds announced file size");
+
+        try {
+            transfer.write(offset, data);
+            return Optional.empty();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.of("Cannot write spool file");
+        }
+    }
+
+
+    public Optional<String> complete(String topic, FileEndPayload payload, List<ClientThread> subscribers) {
+        FileTransfer transfer = transfers.get(key(topic, payload.getFileId()));
+
+        if (transfer == null)
+            return Optional.of("Unknown file transfer");
+
+        if (transfer.isComplete())
+            return Optional.of("File transfer already completed");
+
+        if (transfer.getReceived() != transfer.getSize())
+            return Optional.of("File incomplete, received " + transfer.getReceived() + " of " + transfer.getSize() + " bytes");
+
+        try {
+            transfer.complete();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.of("Cannot read spool file");
+        }
+
+        for (ClientThread subscriber : subscribers)
+            deliveries.add(new FileDelivery(subscriber, transfer, 0));
+
+        pump();
+        return Optional.empty();
+    }
+
+
+    public Optional<String> resume(String topic, ClientThread subscriber, String fileId, long offset) {
+        FileTransfer transfer = transfers.get(key(topic, fileId));
+
+        if (transfer == null || !transfer.isComplete())
+            return Optional.of("File not available");
+
+        if (offset > transfer.getSize())
+            return Optional.of("Offset beyond end of file");
+
+        deliveries.removeIf(delivery -> delivery.getSubscriber() == subscriber && delivery.getTransfer() == transfer);
+        deliveries.add(new FileDelivery(subscriber, transfer, offset));
+        transfer.touch();
+
+        pump();
+        return Optional.empty();
+    }
+
+
+    public void pump() {
+        Iterator<FileDelivery> iterator = deliveries.iterator();
+
+        while (iterator.hasNext()) {
+            FileDelivery delivery = iterator.next();
+            if (!deliver(delivery))
+                iterator.remove();
+        }
+
+        expireTransfers();
+    }
+
+
+    private boolean deliver(FileDelivery delivery) {
+        ClientThread subscriber = delivery.getSubscriber();
+        FileTransfer transfer = delivery.getTransfer();
+
+        if (!topicsDriver.isTopicSubscriber(subscriber, transfer.getTopic()))
+            return false;
+
+        try {
+            while (subscriber.getOutboundQueue().getQueuedBytes() < FILE_DELIVERY_WINDOW_BYTES) {
+                long offset = delivery.getNextOffset();
+                boolean beginSent = delivery.isBeginSent();
+
+                ByteBuffer[] message = nextMessage(delivery);
+                if (message == null)
+                    return false;
+
+                OfferResult result = subscriber.enqueue(message);
+
+                if (result == OfferResult.OVERFLOW) {
+                    System.err.println("Outbound lag limit exceeded, disconnecting " + subscriber);
+                    subscriber.disconnect();
+                    return false;
+                }
+
+                if (result == OfferResult.THROTTLED) {
+                    if (subscriber.getOutboundQueue().getPolicy() == BackpressurePolicy.DROP_NEWEST) {
+                        delivery.setNextOffset(offset);
+                        delivery.setBeginSent(beginSent);
+                    }
+
+                    break;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        transfer.touch();
+        return true;
+    }
+
+
+    private ByteBuffer[] nextMessage(FileDelivery delivery) throws JsonProcessingException {
+        FileTransfer transfer = delivery.getTransfer();
+        ClientThread subscriber = delivery.getSubscriber();
+
+        if (!delivery.isBeginSent()) {
+            delivery.setBeginSent(true);
+            FileBeginPayload payload = new FileBeginPayload(transfer.getFileId(), transfer.getName(), transfer.getSize());
+            return new ByteBuffer[]{encode(transfer, "file-begin", payload, subscriber)};
+        }
+
+        long offset = delivery.getNextOffset();
+
+        if (offset > transfer.getSize())
+            return null;
+
+        if (offset == transfer.getSize()) {
+            delivery.setNextOffset(offset + 1);
+            return new ByteBuffer[]{encode(transfer, "file-end", new FileEndPayload(transfer.getFileId()), subscriber)};
+        }
+
+        int chunkSize = subscriber.supportsBinaryFrames() ? binaryChunkSize : inlineChunkSize;
+        int length = (int) Math.min(chunkSize, transfer.getSize() - offset);
+        ByteBuffer chunk = transfer.slice(offset, length);
+        delivery.setNextOffset(offset + length);
+
+        if (subscriber.supportsBinaryFrames()) {
+            FileChunkPayload payload = new FileChunkPayload(transfer.getFileId(), offset, length, null);
+            return new ByteBuffer[]{encode(transfer, "file-chunk", payload, subscriber), chunk};
+        }
+
+        byte[] data = new byte[length];
+        chunk.get(data);
+        FileChunkPayload payload = new FileChunkPayload(transfer.getFileId(), offset, null, data);
+        return new ByteBuffer[]{encode(transfer, "file-chunk", payload, subscriber)};
+    }
+
+
+    private ByteBuffer encode(FileTransfer transfer, String type, Payload payload, ClientThread subscriber) throws JsonProcessingException {
+        Message message = new Message(type, transfer.getProducerId(), transfer.getTopic(), "producer", transfer.getTimestamp(), payload);
+        return ByteBuffer.wrap(encoder.encode(message, subscriber.getWireFormat()));
+    }
+
+
+    private void expireTransfers() {
+        long now = System.nanoTime();
+        Iterator<FileTransfer> iterator = transfers.values().iterator();
+
+        while (iterator.hasNext()) {
+            FileTransfer transfer = iterator.next();
+            long idleMs = TimeUnit.NANOSECONDS.toMillis(now - transfer.getLastActivityNanos());
+            long timeoutMs = transfer.isComplete() ? FILE_SPOOL_RETENTION_MS : FILE_TRANSFER_IDLE_TIMEOUT_MS;
+
+            if (idleMs < timeoutMs || isBeingDelivered(transfer))
+                continue;
+
+            iterator.remove();
+            transfer.discard();
+        }
+    }
+
+
+    private boolean isBeingDelivered(FileTransfer transfer) {
+        for (FileDelivery delivery : deliveries) {
+            if (delivery.getTransfer() == transfer)
+                return true;
+        }
+
+        return false;
+    }
+
+
+    public long nanosUntilNextPump() {
+        if (!deliveries.isEmpty())
+            return TimeUnit.MILLISECONDS.toNanos(FILE_DELIVERY_POLL_MS);
+
+        if (!transfers.isEmpty())
+            return TimeUnit.MILLISECONDS.toNanos(FILE_CLEANUP_INTERVAL_MS);
+
+        return -1;
+    }
+
+
+    public void close() {
+        deliveries.clear();
+        transfers.values().forEach(FileTransfer::discard);
+        transfers.clear();
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.example.server.filters;
+
+import java.util.Map;
+
+public record FilterCondition(String field, FilterOperator operator, String value, Double number) {
+
+    public boolean test(Map<String, String> headers) {
+        String header = headers.get(field);
+        if (header == null)
+            return operator == FilterOperator.NOT_EQUAL;
+
+        if (number != null) {
+            Double headerNumber = parseNumber(header);
+            if (headerNumber != null)
+                return compare(Double.compare(headerNumber, number));
+
+            if (operator.isRange())
+                return false;
+        }
+
+        return compare(header.equals(value) ? 0 : 1);
+    }
+
+
+    private boolean compare(int comparison) {
+        return switch (operator) {
+            case EQUAL -> comparison == 0;
+            case NOT_EQUAL -> comparison != 0;
+            case LESS -> comparison < 0;
+            case LESS_OR_EQUAL -> comparison <= 0;
+            case GREATER -> comparison > 0;
+            case GREATER_OR_EQUAL -> comparison >= 0;
+        };
+    }
+
+
+    static Double parseNumber(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return field + " " + operator.getValue() + " " + value;
+    }
+}
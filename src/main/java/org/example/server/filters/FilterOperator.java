@@ -0,0 +1,34 @@
+package org.example.server.filters;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+@AllArgsConstructor
+public enum FilterOperator {
+
+    EQUAL("=", false),
+    NOT_EQUAL("!=", false),
+    LESS("<", true),
+    LESS_OR_EQUAL("<=", true),
+    GREATER(">", true),
+    GREATER_OR_EQUAL(">=", true)
+    ;
+
+    @Getter
+    private final String value;
+
+    @Getter
+    private final boolean range;
+
+
+    public static Optional<FilterOperator> fromValue(String value) {
+        for (FilterOperator operator : values()) {
+            if (operator.value.equals(value))
+                return Optional.of(operator);
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.server.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class SubscriptionFilter {
+
+    private static final Pattern CONJUNCTION = Pattern.compile("\\s+(?i:and)\\s+");
+    private static final Pattern CONDITION = Pattern.compile("^\\s*([\\w.-]+)\\s*(<=|>=|!=|=|<|>)\\s*(.+?)\\s*$");
+
+    private final List<FilterCondition> conditions;
+    private final String canonical;
+
+
+    private SubscriptionFilter(List<FilterCondition> conditions) {
+        this.conditions = conditions;
+        this.canonical = String.join(" and ", conditions.stream().map(FilterCondition::toString).toList());
+    }
+
+
+    public static Optional<SubscriptionFilter> compile(String expression) {
+        if (expression == null || expression.isBlank())
+            return Optional.empty();
+
+        List<FilterCondition> conditions = new ArrayList<>();
+
+        for (String clause : CONJUNCTION.split(expression.trim())) {
+            Matcher matcher = CONDITION.matcher(clause);
+            if (!matcher.matches())
+                return Optional.empty();
+
+            FilterOperator operator = FilterOperator.fromValue(matcher.group(2)).orElseThrow();
+            String value = unquote(matcher.group(3));
+            Double number = FilterCondition.parseNumber(value);
+
+            if (operator.isRange() && number == null)
+                return Optional.empty();
+
+            conditions.add(new FilterCondition(matcher.group(1), operator, value, number));
+        }
+
+        conditions.sort(Comparator.comparing(FilterCondition::toString));
+        return Optional.of(new SubscriptionFilter(Collections.unmodifiableList(conditions)));
+    }
+
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.startsWith("'") && value.endsWith("'") || value.startsWith("\"") && value.endsWith("\"")))
+            return value.substring(1, value.length() - 1);
+
+        return value;
+    }
+
+
+    public boolean test(Map<String, String> headers) {
+        for (FilterCondition condition : conditions) {
+            if (!condition.test(headers))
+                return false;
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SubscriptionFilter filter && canonical.equals(filter.canonical);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return canonical.hashCode();
+    }
+
+
+    @Override
+    public String toString() {
+        return canonical;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.server.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.client.ClientThread;
+import org.example.server.topics.SubscriptionOptions;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class JournalReplay {
+
+    private final ClientThread subscriber;
+    private final String topic;
+    private final TopicJournal journal;
+    private final SubscriptionOptions subscriptionOptions;
+    private final Instant requestTimestamp;
+    private long nextOffset;
+    private long replayedMessages;
+    private boolean subscribed;
+
+    public JournalReplay(ClientThread subscriber, String topic, TopicJournal journal, SubscriptionOptions subscriptionOptions,
+                         Instant requestTimestamp, long nextOffset) {
+        this.subscriber = subscriber;
+        this.topic = topic;
+        this.journal = journal;
+        this.subscriptionOptions = subscriptionOptions;
+        this.requestTimestamp = requestTimestamp;
+        this.nextOffset = nextOffset;
+    }
+
+}
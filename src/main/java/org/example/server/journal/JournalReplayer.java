@@ -0,0 +1,137 @@
+package org.example.server.journal;
+
+import org.example.client.ClientThread;
+import org.example.interfaces.TopicsDriver;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.messages_to_send.OfferResult;
+import org.example.server.wire.WireFormat;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.example.settings.Settings.JOURNAL_REPLAY_BATCH_MESSAGES;
+import static org.example.settings.Settings.JOURNAL_REPLAY_POLL_MS;
+import static org.example.settings.Settings.JOURNAL_REPLAY_WINDOW_BYTES;
+
+public class JournalReplayer {
+
+    private final TopicsDriver topicsDriver;
+    private final BiFunction<ByteBuffer, WireFormat, ByteBuffer> transcoder;
+    private final List<JournalReplay> replays;
+
+
+    public JournalReplayer(TopicsDriver topicsDriver, BiFunction<ByteBuffer, WireFormat, ByteBuffer> transcoder) {
+        this.topicsDriver = topicsDriver;
+        this.transcoder = transcoder;
+        this.replays = new ArrayList<>();
+    }
+
+
+    public void start(JournalReplay replay) {
+        replays.add(replay);
+    }
+
+
+    public boolean isReplaying(ClientThread subscriber, String topic) {
+        for (JournalReplay replay : replays) {
+            if (replay.getSubscriber() == subscriber && replay.getTopic().equals(topic))
+                return true;
+        }
+
+        return false;
+    }
+
+
+    public boolean cancel(ClientThread subscriber, String topic) {
+        return replays.removeIf(replay -> replay.getSubscriber() == subscriber && replay.getTopic().equals(topic));
+    }
+
+
+    public List<JournalReplay> pump() {
+        if (replays.isEmpty())
+            return Collections.emptyList();
+
+        List<JournalReplay> finished = new ArrayList<>();
+        Iterator<JournalReplay> iterator = replays.iterator();
+
+        while (iterator.hasNext()) {
+            JournalReplay replay = iterator.next();
+            if (replay(replay))
+                continue;
+
+            iterator.remove();
+            finished.add(replay);
+        }
+
+        return finished;
+    }
+
+
+    private boolean replay(JournalReplay replay) {
+        ClientThread subscriber = replay.getSubscriber();
+        TopicJournal journal = replay.getJournal();
+
+        if (subscriber.getOutboundQueue().isClosed())
+            return false;
+
+        while (subscriber.getOutboundQueue().getQueuedBytes() < JOURNAL_REPLAY_WINDOW_BYTES) {
+            List<ByteBuffer> entries;
+            long offset;
+
+            synchronized (journal) {
+                offset = Math.max(replay.getNextOffset(), journal.getStartOffset());
+                entries = journal.read(offset, JOURNAL_REPLAY_BATCH_MESSAGES);
+
+                if (entries.isEmpty()) {
+                    replay.setSubscribed(topicsDriver.addSubscriber(replay.getTopic(), subscriber, replay.getSubscriptionOptions()));
+                    return false;
+                }
+            }
+
+            for (ByteBuffer entry : entries) {
+                if (subscriber.getOutboundQueue().isHalfFull())
+                    return true;
+
+                ByteBuffer content = subscriber.getWireFormat() == WireFormat.JSON ? entry : transcoder.apply(entry, subscriber.getWireFormat());
+                OfferResult result = content == null ? OfferResult.ACCEPTED : subscriber.enqueue(content);
+
+                if (result == OfferResult.OVERFLOW) {
+                    System.err.println("Outbound lag limit exceeded, disconnecting " + subscriber);
+                    subscriber.disconnect();
+                    return false;
+                }
+
+                if (result == OfferResult.THROTTLED && subscriber.getOutboundQueue().getPolicy() == BackpressurePolicy.DROP_NEWEST) {
+                    replay.setNextOffset(offset);
+                    return true;
+                }
+
+                offset++;
+                replay.setNextOffset(offset);
+                if (content != null)
+                    replay.setReplayedMessages(replay.getReplayedMessages() + 1);
+
+                if (result == OfferResult.THROTTLED)
+                    return true;
+            }
+        }
+
+        return true;
+    }
+
+
+    public long nanosUntilNextPump() {
+        return replays.isEmpty() ? -1 : TimeUnit.MILLISECONDS.toNanos(JOURNAL_REPLAY_POLL_MS);
+    }
+
+
+    public void close() {
+        replays.clear();
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.example.server.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class JournalSegment {
+
+    public static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    private final Path path;
+    private final long baseOffset;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private int[] positions;
+    private long[] timestamps;
+    private int count;
+    private int writePosition;
+
+
+    private JournalSegment(Path path, long baseOffset, int capacity) throws IOException {
+        this.path = path;
+        this.baseOffset = baseOffset;
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.positions = new int[INITIAL_INDEX_CAPACITY];
+        this.timestamps = new long[INITIAL_INDEX_CAPACITY];
+    }
+
+
+    public static JournalSegment open(Path path, long baseOffset, int capacity) throws IOException {
+        int mappedCapacity = (int) Math.max(capacity, Files.exists(path) ? Files.size(path) : 0);
+        JournalSegment segment = new JournalSegment(path, baseOffset, mappedCapacity);
+        segment.recover();
+        return segment;
+    }
+
+
+    private void recover() {
+        while (writePosition + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(writePosition);
+            if (length <= 0 || writePosition + RECORD_HEADER_SIZE + length > capacity)
+                break;
+
+            addIndexEntry(writePosition, buffer.getLong(writePosition + Integer.BYTES));
+            writePosition += RECORD_HEADER_SIZE + length;
+        }
+    }
+
+
+    public boolean hasRoom(int length) {
+        return writePosition + RECORD_HEADER_SIZE + length <= capacity;
+    }
+
+
+    public long append(byte[] content, long timestamp) {
+        int position = writePosition;
+
+        buffer.putLong(position + Integer.BYTES, timestamp);
+        buffer.put(position + RECORD_HEADER_SIZE, content);
+        buffer.putInt(position, content.length);
+
+        addIndexEntry(position, timestamp);
+        writePosition += RECORD_HEADER_SIZE + content.length;
+
+        return baseOffset + count - 1;
+    }
+
+
+    private void addIndexEntry(int position, long timestamp) {
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+            timestamps = Arrays.copyOf(timestamps, count * 2);
+        }
+
+        positions[count] = position;
+        timestamps[count] = timestamp;
+        count++;
+    }
+
+
+    public ByteBuffer read(long offset) {
+        int position = positions[(int) (offset - baseOffset)];
+        int length = buffer.getInt(position);
+        return buffer.slice(position + RECORD_HEADER_SIZE, length).asReadOnlyBuffer();
+    }
+
+
+    public long offsetForTimestamp(long timestamp) {
+        int low = 0;
+        int high = count;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < timestamp)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return baseOffset + low;
+    }
+
+
+    public long getBaseOffset() {
+        return baseOffset;
+    }
+
+
+    public long getNextOffset() {
+        return baseOffset + count;
+    }
+
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+
+    public long getLastTimestamp() {
+        return count == 0 ? 0 : timestamps[count - 1];
+    }
+
+
+    public int getSizeBytes() {
+        return writePosition;
+    }
+
+
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    public void delete() {
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.example.server.journal;
+
+import org.example.config.Config;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JournalStore {
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long retentionBytes;
+    private final long retentionMs;
+    private final Map<String, TopicJournal> journals;
+
+
+    public JournalStore(Config config) {
+        this.directory = config.getJournalDirectory() == null ? null : Path.of(config.getJournalDirectory());
+        this.segmentBytes = config.getJournalSegmentBytes();
+        this.retentionBytes = config.getJournalRetentionBytes();
+        this.retentionMs = config.getJournalRetentionMs();
+        this.journals = new ConcurrentHashMap<>();
+    }
+
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+
+    public synchronized TopicJournal open(String topic) throws IOException {
+        TopicJournal journal = journals.get(topic);
+        if (journal != null)
+            return journal;
+
+        journal = TopicJournal.open(directory.resolve(directoryName(topic)), segmentBytes, retentionBytes, retentionMs);
+        journals.put(topic, journal);
+        return journal;
+    }
+
+
+    private String directoryName(String topic) {
+        return URLEncoder.encode(topic, StandardCharsets.UTF_8).replace(".", "%2E").replace("*", "%2A");
+    }
+
+
+    public synchronized void close() {
+        journals.values().forEach(TopicJournal::close);
+        journals.clear();
+    }
+
+}
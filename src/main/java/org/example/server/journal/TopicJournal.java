@@ -0,0 +1,156 @@
+package org.example.server.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TopicJournal {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long retentionBytes;
+    private final long retentionMs;
+    private final List<JournalSegment> segments;
+
+    private long lastTimestamp;
+
+
+    private TopicJournal(Path directory, int segmentBytes, long retentionBytes, long retentionMs) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retentionBytes = retentionBytes;
+        this.retentionMs = retentionMs;
+        this.segments = new ArrayList<>();
+    }
+
+
+    public static TopicJournal open(Path directory, int segmentBytes, long retentionBytes, long retentionMs) throws IOException {
+        Files.createDirectories(directory);
+        TopicJournal journal = new TopicJournal(directory, segmentBytes, retentionBytes, retentionMs);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Long> baseOffsets = files
+                    .map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+
+            for (long baseOffset : baseOffsets)
+                journal.segments.add(JournalSegment.open(journal.segmentPath(baseOffset), baseOffset, segmentBytes));
+        }
+
+        if (journal.segments.isEmpty())
+            journal.segments.add(JournalSegment.open(journal.segmentPath(0), 0, segmentBytes));
+
+        journal.lastTimestamp = journal.activeSegment().getLastTimestamp();
+        journal.applyRetention();
+        return journal;
+    }
+
+
+    private Path segmentPath(long baseOffset) {
+        return directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+    }
+
+
+    public synchronized long append(byte[] content) throws IOException {
+        if (content.length + JournalSegment.RECORD_HEADER_SIZE > segmentBytes)
+            throw new IOException("Message larger than journal segment");
+
+        JournalSegment segment = activeSegment();
+
+        if (!segment.hasRoom(content.length)) {
+            segment = JournalSegment.open(segmentPath(segment.getNextOffset()), segment.getNextOffset(), segmentBytes);
+            segments.add(segment);
+        }
+
+        lastTimestamp = Math.max(lastTimestamp, System.currentTimeMillis());
+        long offset = segment.append(content, lastTimestamp);
+
+        applyRetention();
+        return offset;
+    }
+
+
+    public synchronized List<ByteBuffer> read(long fromOffset, int maxMessages) {
+        List<ByteBuffer> messages = new ArrayList<>();
+        long offset = Math.max(fromOffset, getStartOffset());
+
+        for (JournalSegment segment : segments) {
+            while (offset < segment.getNextOffset() && messages.size() < maxMessages) {
+                if (offset >= segment.getBaseOffset())
+                    messages.add(segment.read(offset));
+
+                offset++;
+            }
+        }
+
+        return messages;
+    }
+
+
+    public synchronized long offsetForTimestamp(long timestamp) {
+        for (JournalSegment segment : segments) {
+            if (!segment.isEmpty() && segment.getLastTimestamp() >= timestamp)
+                return segment.offsetForTimestamp(timestamp);
+        }
+
+        return getEndOffset();
+    }
+
+
+    public synchronized long getStartOffset() {
+        return segments.get(0).getBaseOffset();
+    }
+
+
+    public synchronized long getEndOffset() {
+        return activeSegment().getNextOffset();
+    }
+
+
+    private JournalSegment activeSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+
+    private void applyRetention() {
+        long totalBytes = 0;
+        for (JournalSegment segment : segments)
+            totalBytes += segment.getSizeBytes();
+
+        long oldestAllowed = retentionMs > 0 ? System.currentTimeMillis() - retentionMs : Long.MIN_VALUE;
+
+        while (segments.size() > 1) {
+            JournalSegment oldest = segments.get(0);
+            boolean overSize = retentionBytes > 0 && totalBytes > retentionBytes;
+            boolean expired = oldest.getLastTimestamp() < oldestAllowed;
+
+            if (!overSize && !expired)
+                break;
+
+            totalBytes -= oldest.getSizeBytes();
+            segments.remove(0);
+            oldest.delete();
+        }
+    }
+
+
+    public synchronized void close() {
+        for (JournalSegment segment : segments)
+            segment.close();
+    }
+
+
+    public String describe() {
+        return "offsets " + getStartOffset() + "-" + getEndOffset();
+    }
+
+}
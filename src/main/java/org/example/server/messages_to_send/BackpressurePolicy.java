@@ -0,0 +1,29 @@
+package org.example.server.messages_to_send;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+@AllArgsConstructor
+public enum BackpressurePolicy {
+
+    BLOCK("block"),
+    DROP_OLDEST("drop-oldest"),
+    DROP_NEWEST("drop-newest"),
+    DISCONNECT("disconnect")
+    ;
+
+    @Getter
+    private final String value;
+
+
+    public static Optional<BackpressurePolicy> fromValue(String value) {
+        for (BackpressurePolicy policy : values()) {
+            if (policy.value.equals(value))
+                return Optional.of(policy);
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.server.messages_to_send;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.client.ClientThread;
+import org.example.client.SocketClient;
+import org.example.server.receive_message.Message;
+import org.example.server.receive_message.message.MessagePayload;
+import org.example.server.wire.WireEncoder;
+import org.example.server.wire.WireFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+public class DeliveryService {
+
+    private final ExecutorService writers;
+    private final ScheduledExecutorService flushTimer;
+    private final ExecutorService redeliveries;
+    private final int writeLingerMs;
+    private final Map<WireFormat, ObjectMapper> readers;
+    private final WireEncoder redeliveryEncoder;
+
+
+    public DeliveryService(int writerThreads, int writeLingerMs) {
+        this.writeLingerMs = writeLingerMs;
+        this.readers = new EnumMap<>(WireFormat.class);
+        for (WireFormat format : WireFormat.values())
+            readers.put(format, format.createMapper());
+        this.redeliveryEncoder = WireEncoder.withoutPayloadType();
+        this.writers = writerThreads > 0
+                ? Executors.newFixedThreadPool(writerThreads, Thread.ofPlatform().name("writer-", 0).factory())
+                : Executors.newThreadPerTaskExecutor(virtualWriterFactory());
+        this.flushTimer = writeLingerMs > 0
+                ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("flush-timer").daemon().factory())
+                : null;
+        this.redeliveries = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("redelivery").daemon().factory());
+    }
+
+
+    private ThreadFactory virtualWriterFactory() {
+        return Thread.ofVirtual().name("writer-", 0).factory();
+    }
+
+
+    public ByteBuffer share(byte[] content) {
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+
+    public List<ClientThread> publish(Notification notification) {
+        List<ClientThread> recipients = notification.recipients();
+        ByteBuffer[] encodedContent = new ByteBuffer[WireFormat.values().length];
+        List<ClientThread> lagging = null;
+
+        for (ClientThread recipient : recipients) {
+            WireFormat format = recipient.getWireFormat();
+            ByteBuffer content = encodedContent[format.ordinal()];
+
+            if (content == null) {
+                try {
+                    content = share(notification.encode(format));
+                    encodedContent[format.ordinal()] = content;
+                } catch (JsonProcessingException e) {
+                    e.printStackTrace();
+                    continue;
+                }
+            }
+
+            OfferResult result = enqueue(notification, recipient, format, content);
+
+            if (result == OfferResult.ACCEPTED)
+                continue;
+
+            if (result == OfferResult.OVERFLOW) {
+                System.err.println("Outbound lag limit exceeded, disconnecting " + recipient);
+                recipient.disconnect();
+            }
+
+            if (lagging == null)
+                lagging = new ArrayList<>();
+
+            lagging.add(recipient);
+        }
+
+        return lagging == null ? Collections.emptyList() : lagging;
+    }
+
+
+    private OfferResult enqueue(Notification notification, ClientThread recipient, WireFormat format, ByteBuffer content) {
+        String group = notification.groupOf(recipient);
+        if (group != null)
+            return recipient.enqueueShared(sharedDelivery(notification, group, format, content), content);
+
+        if (notification.isConflatedFor(recipient))
+            return recipient.enqueueConflated(notification.conflationKey(), content);
+
+        return recipient.enqueue(content);
+    }
+
+
+    private SharedDelivery sharedDelivery(Notification notification, String group, WireFormat format, ByteBuffer content) {
+        Message message = (Message) notification.content();
+        Map<String, String> headers = message.getPayload() instanceof MessagePayload messagePayload
+                ? messagePayload.getHeaders()
+                : null;
+
+        return new SharedDelivery(message.getTopic(), group, headers, format, content);
+    }
+
+
+    public boolean redeliver(SharedDelivery delivery, ClientThread member) {
+        WireFormat format = member.getWireFormat();
+        ByteBuffer content = delivery.content().duplicate();
+
+        if (format != delivery.format()) {
+            try {
+                byte[] encoded = new byte[content.remaining()];
+                content.get(encoded);
+                Message message = readers.get(delivery.format()).readValue(encoded, Message.class);
+                content = ByteBuffer.wrap(redeliveryEncoder.encode(message, format));
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+
+        SharedDelivery redelivery = new SharedDelivery(delivery.topic(), delivery.group(), delivery.headers(), format, content);
+        OfferResult result = member.enqueueShared(redelivery, content);
+
+        if (result == OfferResult.OVERFLOW) {
+            System.err.println("Outbound lag limit exceeded, disconnecting " + member);
+            member.disconnect();
+        }
+
+        return result != OfferResult.OVERFLOW;
+    }
+
+
+    public void scheduleRedelivery(Runnable redelivery) {
+        redeliveries.execute(redelivery);
+    }
+
+
+    public void scheduleFlush(SocketClient client) {
+        if (flushTimer == null) {
+            writers.execute(client::flushOutbound);
+            return;
+        }
+
+        flushTimer.schedule(() -> writers.execute(client::flushOutbound), writeLingerMs, TimeUnit.MILLISECONDS);
+    }
+
+
+    public void shutdown() {
+        if (flushTimer != null)
+            flushTimer.shutdownNow();
+
+        writers.shutdownNow();
+        redeliveries.shutdownNow();
+    }
+
+}
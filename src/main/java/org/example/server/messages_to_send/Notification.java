@@ -1,14 +1,43 @@
 package org.example.server.messages_to_send;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.example.client.ClientThread;
+import org.example.server.topics.TopicData;
+import org.example.server.wire.WireEncoder;
+import org.example.server.wire.WireFormat;
 
 import java.util.List;
 
-public record Notification(String content, List<ClientThread> recipients) {
+public record Notification(Object content, WireEncoder encoder, List<ClientThread> recipients, byte[] encodedJson,
+                           String conflationKey, TopicData topicData) {
+
+    public Notification(Object content, WireEncoder encoder, List<ClientThread> recipients) {
+        this(content, encoder, recipients, null, null, null);
+    }
+
+
+    public boolean isConflatedFor(ClientThread recipient) {
+        return conflationKey != null && topicData != null && topicData.getConflatingSubscribers().contains(recipient);
+    }
+
+
+    public String groupOf(ClientThread recipient) {
+        return topicData == null ? null : topicData.getGroup(recipient);
+    }
+
+
+    public byte[] encode(WireFormat format) throws JsonProcessingException {
+        if (format == WireFormat.JSON && encodedJson != null)
+            return encodedJson;
+
+        return encoder.encode(content, format);
+    }
+
+
     @Override
     public String toString() {
         return "Notification{" +
-                "content='" + content + '\'' +
+                "content=" + content +
                 ", recipients=" + recipients +
                 '}';
     }
@@ -0,0 +1,9 @@
+package org.example.server.messages_to_send;
+
+public enum OfferResult {
+
+    ACCEPTED,
+    THROTTLED,
+    OVERFLOW
+
+}
@@ -0,0 +1,351 @@
+package org.example.server.messages_to_send;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class OutboundQueue {
+
+    private final ArrayDeque<ByteBuffer[]> messages;
+    private final int maxMessages;
+    private final long maxBytes;
+    private final long blockTimeoutNanos;
+    private final ReentrantLock lock;
+    private final Condition notFull;
+    private final AtomicBoolean flushScheduled;
+    private final Map<String, ByteBuffer[]> conflatableMessages;
+    private final Map<ByteBuffer[], String> conflationKeys;
+    private final Map<ByteBuffer[], SharedDelivery> sharedDeliveries;
+    private final List<SharedDelivery> orphanedDeliveries;
+
+    private volatile BackpressurePolicy policy;
+    private long queuedBytes;
+    private long droppedMessages;
+    private long conflatedMessages;
+    private boolean closed;
+
+
+    public OutboundQueue(int maxMessages, long maxBytes, BackpressurePolicy policy, long blockTimeoutMs) {
+        this.messages = new ArrayDeque<>();
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.policy = policy;
+        this.lock = new ReentrantLock();
+        this.notFull = lock.newCondition();
+        this.flushScheduled = new AtomicBoolean(false);
+        this.conflatableMessages = new HashMap<>();
+        this.conflationKeys = new IdentityHashMap<>();
+        this.sharedDeliveries = new IdentityHashMap<>();
+        this.orphanedDeliveries = new ArrayList<>();
+    }
+
+
+    public OfferResult offer(ByteBuffer[] message) {
+        return offer(null, null, message);
+    }
+
+
+    public OfferResult offer(String conflationKey, SharedDelivery sharedDelivery, ByteBuffer[] message) {
+        lock.lock();
+        try {
+            if (closed) {
+                if (sharedDelivery != null)
+                    orphanedDeliveries.add(sharedDelivery);
+
+                return OfferResult.ACCEPTED;
+            }
+
+            if (conflationKey != null && replaceQueued(conflationKey, message))
+                return OfferResult.ACCEPTED;
+
+            if (!isFull(sizeOf(message))) {
+                add(message, conflationKey, sharedDelivery);
+                return OfferResult.ACCEPTED;
+            }
+
+            return switch (policy) {
+                case BLOCK -> awaitSpace(message, conflationKey, sharedDelivery);
+                case DROP_OLDEST -> dropOldest(message, conflationKey, sharedDelivery);
+                case DROP_NEWEST -> {
+                    droppedMessages++;
+                    yield OfferResult.THROTTLED;
+                }
+                case DISCONNECT -> OfferResult.OVERFLOW;
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    private static long sizeOf(ByteBuffer[] message) {
+        long bytes = 0;
+        for (ByteBuffer frame : message)
+            bytes += frame.remaining();
+
+        return bytes;
+    }
+
+
+    private boolean isFull(long incomingBytes) {
+        if (messages.isEmpty())
+            return false;
+
+        return messages.size() >= maxMessages || queuedBytes + incomingBytes > maxBytes;
+    }
+
+
+    private boolean replaceQueued(String conflationKey, ByteBuffer[] message) {
+        ByteBuffer[] queued = conflatableMessages.get(conflationKey);
+        if (queued == null || queued.length != message.length)
+            return false;
+
+        long growth = sizeOf(message) - sizeOf(queued);
+        if (growth > 0 && queuedBytes + growth > maxBytes)
+            return false;
+
+        queuedBytes += growth;
+        System.arraycopy(message, 0, queued, 0, message.length);
+        conflatedMessages++;
+        return true;
+    }
+
+
+    private void add(ByteBuffer[] message, String conflationKey, SharedDelivery sharedDelivery) {
+        messages.add(message);
+        queuedBytes += sizeOf(message);
+
+        if (sharedDelivery != null)
+            sharedDeliveries.put(message, sharedDelivery);
+
+        if (conflationKey != null) {
+            conflatableMessages.put(conflationKey, message);
+            conflationKeys.put(message, conflationKey);
+        }
+    }
+
+
+    private void removed(ByteBuffer[] message) {
+        queuedBytes -= sizeOf(message);
+
+        if (!sharedDeliveries.isEmpty())
+            sharedDeliveries.remove(message);
+
+        if (conflationKeys.isEmpty())
+            return;
+
+        String conflationKey = conflationKeys.remove(message);
+        if (conflationKey != null)
+            conflatableMessages.remove(conflationKey, message);
+    }
+
+
+    private OfferResult awaitSpace(ByteBuffer[] message, String conflationKey, SharedDelivery sharedDelivery) {
+        long nanos = blockTimeoutNanos;
+
+        try {
+            while (isFull(sizeOf(message)) && !closed) {
+                if (nanos <= 0)
+                    return OfferResult.OVERFLOW;
+
+                nanos = notFull.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return OfferResult.OVERFLOW;
+        }
+
+        if (closed) {
+            if (sharedDelivery != null)
+                orphanedDeliveries.add(sharedDelivery);
+
+            return OfferResult.ACCEPTED;
+        }
+
+        add(message, conflationKey, sharedDelivery);
+        return OfferResult.THROTTLED;
+    }
+
+
+    private OfferResult dropOldest(ByteBuffer[] message, String conflationKey, SharedDelivery sharedDelivery) {
+        while (isFull(sizeOf(message))) {
+            removed(messages.poll());
+            droppedMessages++;
+        }
+
+        add(message, conflationKey, sharedDelivery);
+        return OfferResult.THROTTLED;
+    }
+
+
+    public ByteBuffer[] poll() {
+        lock.lock();
+        try {
+            ByteBuffer[] message = messages.poll();
+
+            if (message == null) {
+                flushScheduled.set(false);
+                return null;
+            }
+
+            removed(message);
+            notFull.signal();
+            return message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public int drainTo(List<ByteBuffer[]> batch, int maxMessages, long maxBytes) {
+        lock.lock();
+        try {
+            int drained = 0;
+            long drainedBytes = 0;
+            ByteBuffer[] message;
+
+            while (drained < maxMessages && (message = messages.peek()) != null) {
+                long messageBytes = sizeOf(message);
+                if (drained > 0 && drainedBytes + messageBytes > maxBytes)
+                    break;
+
+                removed(messages.poll());
+                batch.add(message);
+                drained++;
+                drainedBytes += messageBytes;
+            }
+
+            if (drained == 0) {
+                flushScheduled.set(false);
+                return 0;
+            }
+
+            notFull.signalAll();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public boolean tryScheduleFlush() {
+        return flushScheduled.compareAndSet(false, true);
+    }
+
+
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+
+            if (!sharedDeliveries.isEmpty()) {
+                for (ByteBuffer[] message : messages) {
+                    SharedDelivery sharedDelivery = sharedDeliveries.get(message);
+                    if (sharedDelivery != null)
+                        orphanedDeliveries.add(sharedDelivery);
+                }
+            }
+
+            messages.clear();
+            sharedDeliveries.clear();
+            conflatableMessages.clear();
+            conflationKeys.clear();
+            queuedBytes = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public List<SharedDelivery> takeOrphanedDeliveries() {
+        lock.lock();
+        try {
+            List<SharedDelivery> orphaned = new ArrayList<>(orphanedDeliveries);
+            orphanedDeliveries.clear();
+            return orphaned;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public int size() {
+        lock.lock();
+        try {
+            return messages.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public long getQueuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public boolean isHalfFull() {
+        lock.lock();
+        try {
+            return messages.size() * 2 >= maxMessages || queuedBytes * 2 >= maxBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public long getDroppedMessages() {
+        lock.lock();
+        try {
+            return droppedMessages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public long getConflatedMessages() {
+        lock.lock();
+        try {
+            return conflatedMessages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+
+    public void setPolicy(BackpressurePolicy policy) {
+        this.policy = policy;
+    }
+
+}
@@ -0,0 +1,9 @@
+package org.example.server.messages_to_send;
+
+import org.example.server.wire.WireFormat;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+public record SharedDelivery(String topic, String group, Map<String, String> headers, WireFormat format, ByteBuffer content) {
+}
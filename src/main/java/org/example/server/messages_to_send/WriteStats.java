@@ -0,0 +1,45 @@
+package org.example.server.messages_to_send;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class WriteStats {
+
+    private final LongAdder writes;
+    private final LongAdder messages;
+    private final LongAdder bytes;
+
+    public WriteStats() {
+        this.writes = new LongAdder();
+        this.messages = new LongAdder();
+        this.bytes = new LongAdder();
+    }
+
+
+    public void record(int messagesCount, long bytesCount) {
+        writes.increment();
+        messages.add(messagesCount);
+        bytes.add(bytesCount);
+    }
+
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+
+    public long getMessages() {
+        return messages.sum();
+    }
+
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+
+    public double getAverageMessagesPerWrite() {
+        long writesCount = writes.sum();
+        return writesCount == 0 ? 0 : (double) messages.sum() / writesCount;
+    }
+
+}
@@ -0,0 +1,187 @@
+package org.example.server.nio;
+
+import org.example.client.NioClient;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.example.settings.Settings.IDLE_CHECK_INTERVAL_MS;
+
+public class EventLoop extends Thread {
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks;
+    private final Queue<DelayedFlush> delayedFlushes;
+    private final AtomicBoolean running;
+    private final long timeoutNanos;
+    private final long writeLingerNanos;
+    private long lastIdleCheck;
+
+    public EventLoop(int index, int timeout, int writeLingerMs) throws IOException {
+        super("event-loop-" + index);
+
+        this.selector = Selector.open();
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.delayedFlushes = new ConcurrentLinkedQueue<>();
+        this.running = new AtomicBoolean(true);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        this.writeLingerNanos = TimeUnit.MILLISECONDS.toNanos(writeLingerMs);
+    }
+
+
+    @Override
+    public void run() {
+        lastIdleCheck = System.nanoTime();
+
+        while (running.get()) {
+            try {
+                select();
+                runTasks();
+                runDueFlushes();
+                processSelectedKeys();
+                checkIdleClients();
+            } catch (IOException e) {
+                e.printStackTrace();
+                break;
+            }
+        }
+
+        closeSelector();
+    }
+
+
+    public void register(NioClient client) {
+        execute(() -> client.register(selector));
+    }
+
+
+    public void execute(Runnable task) {
+        tasks.add(task);
+
+        if (Thread.currentThread() != this)
+            selector.wakeup();
+    }
+
+
+    public void scheduleFlush(NioClient client) {
+        if (writeLingerNanos == 0) {
+            execute(client::handleWrite);
+            return;
+        }
+
+        delayedFlushes.add(new DelayedFlush(System.nanoTime() + writeLingerNanos, client));
+
+        if (!inEventLoop())
+            selector.wakeup();
+    }
+
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == this;
+    }
+
+
+    private void select() throws IOException {
+        DelayedFlush nextFlush = delayedFlushes.peek();
+
+        if (nextFlush == null) {
+            selector.select(IDLE_CHECK_INTERVAL_MS);
+            return;
+        }
+
+        long remainingNanos = nextFlush.deadline() - System.nanoTime();
+
+        if (remainingNanos <= 0) {
+            selector.selectNow();
+            return;
+        }
+
+        long remainingMs = (remainingNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1) / TimeUnit.MILLISECONDS.toNanos(1);
+        selector.select(Math.min(remainingMs, IDLE_CHECK_INTERVAL_MS));
+    }
+
+
+    private void runDueFlushes() {
+        long now = System.nanoTime();
+        DelayedFlush flush;
+
+        while ((flush = delayedFlushes.peek()) != null && flush.deadline() - now <= 0) {
+            delayedFlushes.poll();
+            flush.client().handleWrite();
+        }
+    }
+
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null)
+            task.run();
+    }
+
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+
+        while (iterator.hasNext()) {
+            SelectionKey key = iterator.next();
+            iterator.remove();
+
+            NioClient client = (NioClient) key.attachment();
+
+            try {
+                if (key.isReadable())
+                    client.handleRead();
+
+                if (key.isValid() && key.isWritable())
+                    client.handleWrite();
+            } catch (CancelledKeyException ignored) {
+            }
+        }
+    }
+
+
+    private void checkIdleClients() {
+        long now = System.nanoTime();
+        if (now - lastIdleCheck < TimeUnit.MILLISECONDS.toNanos(IDLE_CHECK_INTERVAL_MS))
+            return;
+
+        lastIdleCheck = now;
+
+        for (SelectionKey key : selector.keys()) {
+            NioClient client = (NioClient) key.attachment();
+            if (key.isValid() && client.isIdle(now, timeoutNanos))
+                client.disconnectClientDueToNoActivity();
+        }
+    }
+
+
+    private void closeSelector() {
+        for (SelectionKey key : selector.keys())
+            ((NioClient) key.attachment()).stopThread();
+
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+
+    private record DelayedFlush(long deadline, NioClient client) {
+    }
+
+
+    public void stopThread() {
+        if (!running.getAndSet(false))
+            return;
+
+        selector.wakeup();
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.example.server.receive_message;
+
+import lombok.Getter;
+import org.example.client.ClientThread;
+import org.example.server.topics.AckPolicy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class AckTracker {
+
+    private final Map<String, PendingAck> pendingAcks;
+
+
+    public AckTracker() {
+        this.pendingAcks = new LinkedHashMap<>();
+    }
+
+
+    public PendingAck record(String topic, ClientThread producer, AckPolicy policy, int messagesCount, Instant timestamp) {
+        PendingAck pendingAck = pendingAcks.get(topic);
+
+        if (pendingAck == null || pendingAck.producer != producer) {
+            pendingAck = new PendingAck(topic, producer, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.intervalMs()));
+            pendingAcks.put(topic, pendingAck);
+        }
+
+        pendingAck.messagesCount += messagesCount;
+        pendingAck.lastTimestamp = timestamp;
+
+        if (pendingAck.messagesCount < policy.everyMessages())
+            return null;
+
+        pendingAcks.remove(topic);
+        return pendingAck;
+    }
+
+
+    public List<PendingAck> takeExpired() {
+        if (pendingAcks.isEmpty())
+            return List.of();
+
+        long now = System.nanoTime();
+        List<PendingAck> expired = new ArrayList<>();
+        Iterator<PendingAck> iterator = pendingAcks.values().iterator();
+
+        while (iterator.hasNext()) {
+            PendingAck pendingAck = iterator.next();
+            if (pendingAck.deadline - now > 0)
+                continue;
+
+            iterator.remove();
+            expired.add(pendingAck);
+        }
+
+        return expired;
+    }
+
+
+    public long nanosUntilNextDeadline() {
+        if (pendingAcks.isEmpty())
+            return -1;
+
+        long now = System.nanoTime();
+        long nearest = Long.MAX_VALUE;
+
+        for (PendingAck pendingAck : pendingAcks.values())
+            nearest = Math.min(nearest, pendingAck.deadline - now);
+
+        return Math.max(nearest, 0);
+    }
+
+
+    @Getter
+    public static class PendingAck {
+
+        private final String topic;
+        private final ClientThread producer;
+        private final long deadline;
+        private int messagesCount;
+        private Instant lastTimestamp;
+
+        private PendingAck(String topic, ClientThread producer, long deadline) {
+            this.topic = topic;
+            this.producer = producer;
+            this.deadline = deadline;
+        }
+
+    }
+
+}
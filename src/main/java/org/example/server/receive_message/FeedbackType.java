@@ -8,7 +8,8 @@ public enum FeedbackType {
 
     REJECT("reject"),
     ACKNOWLEDGE("acknowledge"),
-    CONFIG("config")
+    CONFIG("config"),
+    THROTTLE("throttle")
     ;
 
     @Getter
@@ -0,0 +1,38 @@
+package org.example.server.receive_message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.server.wire.WireFormat;
+import org.example.utilities.Validator;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class MessageDecoder {
+
+    private final Map<WireFormat, ObjectMapper> mappers;
+
+    public MessageDecoder() {
+        this.mappers = new EnumMap<>(WireFormat.class);
+
+        for (WireFormat format : WireFormat.values())
+            mappers.put(format, format.createMapper());
+    }
+
+
+    public Message decode(byte[] receivedMessage, WireFormat format) {
+        if (receivedMessage == null || receivedMessage.length == 0)
+            return null;
+
+        try {
+            Message message = mappers.get(format).readValue(receivedMessage, Message.class);
+
+            if (!Validator.isValidMessage(message))
+                return null;
+
+            return message;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
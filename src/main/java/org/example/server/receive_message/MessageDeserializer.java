@@ -0,0 +1,102 @@
+package org.example.server.receive_message;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.example.server.receive_message.batch.BatchPayload;
+import org.example.server.receive_message.config.ConfigPayload;
+import org.example.server.receive_message.file.FileBeginPayload;
+import org.example.server.receive_message.file.FileChunkPayload;
+import org.example.server.receive_message.file.FileEndPayload;
+import org.example.server.receive_message.file.FileResumePayload;
+import org.example.server.receive_message.message.MessagePayload;
+import org.example.server.receive_message.register.RegisterPayload;
+import org.example.server.receive_message.status.StatusPayload;
+import org.example.server.receive_message.withdraw.WithdrawPayload;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+public class MessageDeserializer extends StdDeserializer<Message> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<String, Class<? extends Payload>> PAYLOAD_TYPES = Map.ofEntries(
+            Map.entry("register", RegisterPayload.class),
+            Map.entry("status", StatusPayload.class),
+            Map.entry("message", MessagePayload.class),
+            Map.entry("withdraw", WithdrawPayload.class),
+            Map.entry("config", ConfigPayload.class),
+            Map.entry("file", MessagePayload.class),
+            Map.entry("batch", BatchPayload.class),
+            Map.entry("file-begin", FileBeginPayload.class),
+            Map.entry("file-chunk", FileChunkPayload.class),
+            Map.entry("file-end", FileEndPayload.class),
+            Map.entry("file-resume", FileResumePayload.class)
+    );
+
+    public MessageDeserializer() {
+        super(Message.class);
+    }
+
+
+    @Override
+    public Message deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken())
+            return (Message) ctxt.handleUnexpectedToken(Message.class, p);
+
+        Message message = new Message();
+        TokenBuffer bufferedPayload = null;
+
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+
+            switch (field) {
+                case "type" -> message.setType(_parseString(p, ctxt));
+                case "senderId" -> message.setSenderId(_parseString(p, ctxt));
+                case "topic" -> message.setTopic(_parseString(p, ctxt));
+                case "mode" -> message.setMode(_parseString(p, ctxt));
+                case "timestamp" -> message.setTimestamp(ctxt.readValue(p, Instant.class));
+                case "payload" -> {
+                    if (message.getType() != null) {
+                        message.setPayload(readPayload(p, ctxt, message.getType()));
+                        break;
+                    }
+
+                    bufferedPayload = new TokenBuffer(p, ctxt);
+                    bufferedPayload.copyCurrentStructure(p);
+                }
+                default -> ctxt.handleUnknownProperty(p, this, Message.class, field);
+            }
+        }
+
+        if (bufferedPayload != null) {
+            try (JsonParser payloadParser = bufferedPayload.asParserOnFirstToken()) {
+                message.setPayload(readPayload(payloadParser, ctxt, message.getType()));
+            }
+        }
+
+        return message;
+    }
+
+
+    private Payload readPayload(JsonParser p, DeserializationContext ctxt, String type) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL)
+            return null;
+
+        Class<? extends Payload> payloadClass = type == null ? null : PAYLOAD_TYPES.get(type);
+        if (payloadClass == null)
+            return (Payload) ctxt.handleUnexpectedToken(Payload.class, p);
+
+        JsonDeserializer<Object> deserializer = ctxt.findContextualValueDeserializer(ctxt.constructType(payloadClass), null);
+        Payload payload = (Payload) deserializer.deserialize(p, ctxt);
+        payload.setType(type);
+
+        return payload;
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.example.server.receive_message;
+
+import org.example.client.ClientThread;
+import org.example.interfaces.MessagesQueueDriver;
+import org.example.interfaces.ServerController;
+import org.example.interfaces.TopicsDriver;
+
+public class MessageProcessingStage {
+
+    private final ReceivedMessagesQueueMonitorThread[] workers;
+
+    public MessageProcessingStage(int workersCount, MessagesQueueDriver messagesQueueDriver, TopicsDriver topicsDriver, ServerController serverController) {
+        this.workers = new ReceivedMessagesQueueMonitorThread[workersCount];
+
+        for (int i = 0; i < workers.length; i++)
+            workers[i] = new ReceivedMessagesQueueMonitorThread(i, this, messagesQueueDriver, topicsDriver, serverController);
+    }
+
+
+    public void start() {
+        for (ReceivedMessagesQueueMonitorThread worker : workers)
+            worker.start();
+    }
+
+
+    public void stop() {
+        for (ReceivedMessagesQueueMonitorThread worker : workers)
+            worker.stopThread();
+    }
+
+
+    public void submit(ReceivedMessage receivedMessage) {
+        workerFor(receivedMessage.client()).submit(receivedMessage);
+    }
+
+
+    // Frames are routed by client, not by topic: a client's messages stay ordered (including register and the id
+    // check) and a topic's data follows its single producer. A producer with many topics therefore uses one worker.
+    ReceivedMessagesQueueMonitorThread workerFor(ClientThread client) {
+        return workers[Math.floorMod(System.identityHashCode(client), workers.length)];
+    }
+
+
+    public int getWorkersCount() {
+        return workers.length;
+    }
+
+}
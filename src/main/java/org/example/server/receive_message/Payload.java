@@ -3,14 +3,17 @@ package org.example.server.receive_message;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.Data;
+import org.example.server.receive_message.batch.BatchPayload;
 import org.example.server.receive_message.config.ConfigPayload;
+import org.example.server.receive_message.file.FileBeginPayload;
+import org.example.server.receive_message.file.FileChunkPayload;
+import org.example.server.receive_message.file.FileEndPayload;
+import org.example.server.receive_message.file.FileResumePayload;
 import org.example.server.receive_message.message.MessagePayload;
 import org.example.server.receive_message.register.RegisterPayload;
 import org.example.server.receive_message.status.StatusPayload;
 import org.example.server.receive_message.withdraw.WithdrawPayload;
 
-import javax.validation.constraints.NotBlank;
-
 @JsonTypeInfo(
         use = JsonTypeInfo.Id.NAME,
         include = JsonTypeInfo.As.EXISTING_PROPERTY,
@@ -22,7 +25,12 @@ import javax.validation.constraints.NotBlank;
         @JsonSubTypes.Type(value =  MessagePayload.class, name = "message"),
         @JsonSubTypes.Type(value =  WithdrawPayload.class, name = "withdraw"),
         @JsonSubTypes.Type(value =  ConfigPayload.class, name = "config"),
-        @JsonSubTypes.Type(value =  MessagePayload.class, name = "file")
+        @JsonSubTypes.Type(value =  MessagePayload.class, name = "file"),
+        @JsonSubTypes.Type(value =  BatchPayload.class, name = "batch"),
+        @JsonSubTypes.Type(value =  FileBeginPayload.class, name = "file-begin"),
+        @JsonSubTypes.Type(value =  FileChunkPayload.class, name = "file-chunk"),
+        @JsonSubTypes.Type(value =  FileEndPayload.class, name = "file-end"),
+        @JsonSubTypes.Type(value =  FileResumePayload.class, name = "file-resume")
 })
 @Data
 public abstract class Payload {
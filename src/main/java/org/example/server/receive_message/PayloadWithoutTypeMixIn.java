@@ -0,0 +1,7 @@
+package org.example.server.receive_message;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties({"type"})
+public abstract class PayloadWithoutTypeMixIn {
+}
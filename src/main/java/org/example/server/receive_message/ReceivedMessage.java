@@ -2,11 +2,19 @@ package org.example.server.receive_message;
 
 import org.example.client.ClientThread;
 
-public record ReceivedMessage(String content, ClientThread client) {
+import java.nio.charset.StandardCharsets;
+
+public record ReceivedMessage(byte[] content, ClientThread client, Message message) {
+
+    public ReceivedMessage(byte[] content, ClientThread client) {
+        this(content, client, null);
+    }
+
+
     @Override
     public String toString() {
         return "ReceivedMessage{" +
-                "content='" + content + '\'' +
+                "content='" + new String(content, StandardCharsets.UTF_8) + '\'' +
                 ", client=" + client +
                 '}';
     }
@@ -1,29 +1,77 @@
 package org.example.server.receive_message;
 
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 public class ReceivedMessagesQueue<T> {
 
     private final Queue<T> receivedMessagesQueue;
+    private final AtomicReference<Thread> waitingConsumer;
 
 
     public ReceivedMessagesQueue() {
-        receivedMessagesQueue = new LinkedList<>();
+        receivedMessagesQueue = new ConcurrentLinkedQueue<>();
+        waitingConsumer = new AtomicReference<>();
     }
 
 
     public void add(T receivedAnnouncement) {
-        synchronized (receivedMessagesQueue) {
-            receivedMessagesQueue.add(receivedAnnouncement);
+        receivedMessagesQueue.offer(receivedAnnouncement);
+
+        Thread consumer = waitingConsumer.get();
+        if (consumer != null && waitingConsumer.compareAndSet(consumer, null))
+            LockSupport.unpark(consumer);
+    }
+
+
+    public int drainTo(Collection<? super T> batch, int maxElements) throws InterruptedException {
+        return drainTo(batch, maxElements, -1);
+    }
+
+
+    public int drainTo(Collection<? super T> batch, int maxElements, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int drained = pollInto(batch, maxElements);
+
+        while (drained == 0) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (timeoutNanos >= 0 && remainingNanos <= 0)
+                return 0;
+
+            waitingConsumer.set(Thread.currentThread());
+
+            if (receivedMessagesQueue.isEmpty()) {
+                if (timeoutNanos >= 0)
+                    LockSupport.parkNanos(this, remainingNanos);
+                else
+                    LockSupport.park(this);
+            }
+
+            waitingConsumer.set(null);
+
+            if (Thread.interrupted())
+                throw new InterruptedException();
+
+            drained = pollInto(batch, maxElements);
         }
+
+        return drained;
     }
 
 
-    public T poll() {
-        synchronized (receivedMessagesQueue) {
-            return receivedMessagesQueue.poll();
+    private int pollInto(Collection<? super T> batch, int maxElements) {
+        int drained = 0;
+        T element;
+
+        while (drained < maxElements && (element = receivedMessagesQueue.poll()) != null) {
+            batch.add(element);
+            drained++;
         }
+
+        return drained;
     }
 
 }
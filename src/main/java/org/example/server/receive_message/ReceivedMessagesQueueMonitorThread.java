@@ -1,17 +1,24 @@
 package org.example.server.receive_message;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.example.client.ClientThread;
+import org.example.config.ClientConfig;
 import org.example.config.Config;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.messages_to_send.Notification;
+import org.example.server.messages_to_send.OfferResult;
 import org.example.interfaces.MessagesQueueDriver;
 import org.example.interfaces.ServerController;
 import org.example.interfaces.TopicsDriver;
+import org.example.server.receive_message.batch.BatchPayload;
 import org.example.server.receive_message.config.ConfigPayload;
 import org.example.server.receive_message.config.ConfigResponse;
+import org.example.server.receive_message.file.FileBeginPayload;
+import org.example.server.receive_message.file.FileChunkPayload;
+import org.example.server.receive_message.file.FileEndPayload;
+import org.example.server.receive_message.file.FileResumePayload;
 import org.example.server.receive_message.message.MessagePayload;
 import org.example.server.receive_message.message.MessageResponse;
 import org.example.server.receive_message.register.RegisterPayload;
@@ -19,86 +26,181 @@ import org.example.server.receive_message.status.StatusPayload;
 import org.example.server.receive_message.status.StatusResponseBuilder;
 import org.example.server.receive_message.status.StatusResponsePayload;
 import org.example.server.receive_message.withdraw.WithdrawPayload;
+import org.example.server.files.FileTransferManager;
+import org.example.server.filters.SubscriptionFilter;
+import org.example.server.journal.JournalReplay;
+import org.example.server.journal.JournalReplayer;
+import org.example.server.journal.JournalStore;
+import org.example.server.journal.TopicJournal;
+import org.example.server.topics.AckPolicy;
+import org.example.server.topics.CompactedTopic;
+import org.example.server.topics.GroupStrategy;
+import org.example.server.topics.SubscriptionOptions;
+import org.example.server.topics.SubscriptionTrie;
 import org.example.server.topics.TopicData;
+import org.example.server.topics.TopicOptions;
+import org.example.server.wire.WireEncoder;
+import org.example.server.wire.WireFormat;
 import org.example.utilities.Validator;
 
-import javax.validation.ConstraintViolation;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.example.server.receive_message.FeedbackType.CONFIG;
 import static org.example.server.receive_message.FeedbackType.REJECT;
-import static org.example.settings.Settings.QUEUE_CHECK_INTERVAL_MS;
+import static org.example.server.receive_message.FeedbackType.THROTTLE;
+import static org.example.settings.Settings.RECEIVED_MESSAGES_BATCH_SIZE;
+import static org.example.settings.Settings.THROTTLE_FEEDBACK_INTERVAL_MS;
 
 public class ReceivedMessagesQueueMonitorThread extends Thread {
 
+    private final MessageProcessingStage stage;
+    private final MessageDecoder decoder;
     private final ObjectMapper mapper;
+    private final WireEncoder feedbackEncoder;
+    private final WireEncoder forwardEncoder;
     private final MessagesQueueDriver messagesQueueDriver;
     private final TopicsDriver topicsDriver;
     private final ServerController serverController;
     private final AtomicBoolean running;
-
-    public ReceivedMessagesQueueMonitorThread(MessagesQueueDriver messagesQueueDriver, TopicsDriver topicsDriver, ServerController serverController) {
+    private final AckTracker ackTracker;
+    private final FileTransferManager fileTransfers;
+    private final JournalReplayer journalReplayer;
+    private final ReceivedMessagesQueue<ReceivedMessage> receivedMessagesQueue;
+
+    public ReceivedMessagesQueueMonitorThread(int id, MessageProcessingStage stage, MessagesQueueDriver messagesQueueDriver,
+                                              TopicsDriver topicsDriver, ServerController serverController) {
+        super("processing-" + id);
+
+        this.stage = stage;
+        this.decoder = new MessageDecoder();
+        this.receivedMessagesQueue = new ReceivedMessagesQueue<>();
         this.messagesQueueDriver = messagesQueueDriver;
         this.topicsDriver = topicsDriver;
         this.serverController = serverController;
         this.running = new AtomicBoolean(false);
+        this.ackTracker = new AckTracker();
 
         this.mapper = new ObjectMapper();
         this.mapper.registerModule(new JavaTimeModule());
+        this.feedbackEncoder = WireEncoder.withPayloadType();
+        this.forwardEncoder = WireEncoder.withoutPayloadType();
+        this.fileTransfers = new FileTransferManager(serverController.getServerConfig(), forwardEncoder, topicsDriver);
+        this.journalReplayer = new JournalReplayer(topicsDriver, this::transcode);
     }
 
 
     @Override
     public void run() {
         running.set(true);
+        List<ReceivedMessage> batch = new ArrayList<>(RECEIVED_MESSAGES_BATCH_SIZE);
 
         try {
             while (running.get()) {
-                ReceivedMessage receivedMessage = messagesQueueDriver.pollMessage();
+                receivedMessagesQueue.drainTo(batch, RECEIVED_MESSAGES_BATCH_SIZE, nanosUntilNextWakeup());
 
-                if (receivedMessage == null) {
-                    Thread.sleep(QUEUE_CHECK_INTERVAL_MS);
-                    continue;
-                }
+                for (ReceivedMessage receivedMessage : batch)
+                    processSafely(receivedMessage);
+
+                batch.clear();
 
-                boolean status = manageMessage(receivedMessage);
-                if (status)
-                    receivedMessage.client().setActionRequest(true);
+                runSafely("ack timeouts", () -> ackTracker.takeExpired().forEach(this::addAckMessageToQueue));
+                runSafely("file transfers", fileTransfers::pump);
+                runSafely("journal replays", () -> journalReplayer.pump().forEach(this::addReplayMessageToQueue));
             }
         } catch (InterruptedException ignored) {
         }
 
+        fileTransfers.close();
+        journalReplayer.close();
+    }
+
+
+    private void processSafely(ReceivedMessage receivedMessage) {
+        try {
+            boolean status = manageMessage(receivedMessage);
+            if (status)
+                receivedMessage.client().setActionRequest(true);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to process message from " + receivedMessage.client() + " on " + getName());
+            e.printStackTrace();
+        }
+    }
+
+
+    private void runSafely(String step, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to pump " + step + " on " + getName());
+            e.printStackTrace();
+        }
+    }
+
+
+    private long nanosUntilNextWakeup() {
+        long wakeup = -1;
+
+        for (long deadline : new long[]{ackTracker.nanosUntilNextDeadline(), fileTransfers.nanosUntilNextPump(), journalReplayer.nanosUntilNextPump()}) {
+            if (deadline >= 0 && (wakeup < 0 || deadline < wakeup))
+                wakeup = deadline;
+        }
+
+        return wakeup;
+    }
+
+
+    public void submit(ReceivedMessage receivedMessage) {
+        receivedMessagesQueue.add(receivedMessage);
     }
 
 
     public synchronized void stopThread() {
         running.set(false);
+        interrupt();
     }
 
 
     private boolean manageMessage(ReceivedMessage receivedMessage) {
-        String content = receivedMessage.content();
         ClientThread client = receivedMessage.client();
-
-        Message message = mapReceivedMessage(content);
+        Message message = receivedMessage.message();
 
         if (message == null) {
-            System.err.println("VALIDATION ERROR: " + receivedMessage.content());
-            receivedMessage.client().disconnect();
-            return false;
-        }
+            message = decoder.decode(receivedMessage.content(), client.getWireFormat());
 
-        if (changingExistingId(client, message)) {
-            addErrorMessageToQueue(message, "Cannot to change client id", client);
-            return false;
-        }
+            if (message == null && !client.supportsBinaryFrames() && WireFormat.startsWithSmileHeader(receivedMessage.content())) {
+                addErrorMessageToQueue(new Message(null, null, "logs", null, null, null),
+                        "Smile encoding requires FrameMode length, further frames are ignored", client);
+                return false;
+            }
 
-        if (!isPermitted(message.getSenderId(), client)) {
-            addErrorMessageToQueue(message, "Given ID is busy", client);
-            client.disconnect();
-            return false;
+            if (message == null) {
+                System.err.println("VALIDATION ERROR: " + new String(receivedMessage.content(), StandardCharsets.UTF_8));
+                client.disconnect();
+                return false;
+            }
+
+            if (changingExistingId(client, message)) {
+                addErrorMessageToQueue(message, "Cannot to change client id", client);
+                return false;
+            }
+
+            if (!isPermitted(message.getSenderId(), client)) {
+                addErrorMessageToQueue(message, "Given ID is busy", client);
+                client.disconnect();
+                return false;
+            }
+
+            client.setClientId(message.getSenderId());
+
+            ReceivedMessagesQueueMonitorThread topicWorker = topicWorker(message);
+            if (topicWorker != this) {
+                topicWorker.submit(new ReceivedMessage(receivedMessage.content(), client, message));
+                return true;
+            }
         }
 
         FeedbackPayload payload = null;
@@ -107,6 +209,10 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
         switch (message.getType()) {
             case "register":
                 payload = register(client, message);
+
+                if (payload == null)
+                    return true;
+
                 recipients.add(client);
                 break;
 
@@ -118,19 +224,47 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
 
             case "file":
             case "message":
+            case "batch":
                 MessageResponse response = message(client, message);
 
                 if (!response.isSuccess()) {
                     payload = createFeedbackPayload(false, response.getError());
                     recipients.add(client);
                     break;
-                } else {
-                    boolean success = !response.getRecipients().isEmpty();
-                    payload = createFeedbackPayload(success, "Sent to " + response.getRecipients().size() + " subscribers");
+                }
+
+                TopicData topicData = response.getTopicData();
+                byte[] encodedJson = encodeForRetention(response.getContent(), topicData);
+
+                if (!compact(response.getContent(), topicData, encodedJson)) {
+                    payload = createFeedbackPayload(false, "Compacted topic is full, update rejected: "
+                            + topicData.getCompaction().describe());
                     recipients.add(client);
+                    break;
                 }
 
-                addMessageToQueue(response.getContent(), response.getRecipients());
+                List<ClientThread> lagging = forwardMessage(response.getContent(), response.getRecipients(), topicData, encodedJson);
+                if (!lagging.isEmpty())
+                    addThrottleMessageToQueue(message, lagging, client, topicData);
+
+                payload = acknowledge(client, message, topicData, response.getRecipients().size());
+
+                if (payload == null)
+                    return true;
+
+                recipients.add(client);
+                break;
+
+            case "file-begin":
+            case "file-chunk":
+            case "file-end":
+            case "file-resume":
+                payload = fileTransfer(client, message);
+
+                if (payload == null)
+                    return true;
+
+                recipients.add(client);
                 break;
 
             case "withdraw":
@@ -160,122 +294,177 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
         if (recipients.isEmpty() || payload == null)
             return false;
 
-        try {
-            client.setClientId(message.getSenderId());
+        payload.setTimestampOfMessage(message.getTimestamp());
+        payload.setTopicOfMessage(message.getTopic());
 
-            payload.setTimestampOfMessage(message.getTimestamp());
-            payload.setTopicOfMessage(message.getTopic());
+        message.setTopic("logs");
+        message.setType(payload.getType());
+        message.setPayload(payload);
+        message.setSenderId(serverController.getServerId());
 
-            message.setTopic("logs");
-            message.setType(payload.getType());
-            message.setPayload(payload);
-            message.setSenderId(serverController.getServerConfig().getServerId());
+        addMessageToQueue(message, recipients);
+        return true;
+    }
 
-            String mappedFeedback = mapper.writeValueAsString(message);
-            addMessageToQueue(mappedFeedback, recipients);
 
-            return true;
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-            System.err.println("Map error");
-        }
+    private ReceivedMessagesQueueMonitorThread topicWorker(Message message) {
+        boolean subscriberOperation = message.getMode().equals("subscriber")
+                && (message.getType().equals("register") || message.getType().equals("withdraw"));
 
-        return false;
+        if (!subscriberOperation && !message.getType().equals("file-resume"))
+            return this;
+
+        if (SubscriptionTrie.isPattern(message.getTopic()))
+            return this;
+
+        TopicData topicData = topicsDriver.getTopic(message.getTopic());
+        return topicData == null ? this : stage.workerFor(topicData.getProducer());
     }
 
 
-    private Message mapReceivedMessage(String receivedMessage) {
-        if (receivedMessage == null || receivedMessage.isEmpty())
-            return null;
+    private boolean changingExistingId(ClientThread client, Message message) {
+        String currentClientId = client.getClientId();
+        String clientIdFromMessage = message.getSenderId();
+        return currentClientId != null && !clientIdFromMessage.equals(currentClientId);
+    }
 
-        try {
-            String modifiedJson = insertTypeToPayload(receivedMessage);
-            Message message = mapper.readValue(modifiedJson, Message.class);
 
-            Set<ConstraintViolation<Message>> violations = Validator.validateJsonObject(message);
-            if (violations == null || !violations.isEmpty())
-                return null;
+    private boolean isPermitted(String clientId, ClientThread client) {
+        ClientThread owner = topicsDriver.getProducer(clientId);
+        return owner == null || owner.equals(client);
+    }
 
-            return message;
-        } catch (JsonProcessingException e) {
-//            e.printStackTrace();
-            return null;
-        }
 
+    private void addErrorMessageToQueue(Message message, String error, ClientThread recipient) {
+        if (message == null)
+            return;
+
+        FeedbackPayload feedbackPayload = createFeedbackPayload(false, error);
+        feedbackPayload.setTimestampOfMessage(message.getTimestamp());
+        feedbackPayload.setTopicOfMessage(message.getTopic());
+
+        message.setType(feedbackPayload.getType());
+        message.setPayload(createFeedbackPayload(false, error));
+        message.setSenderId(serverController.getServerId());
+
+        addMessageToQueue(message, recipient);
     }
 
 
-    private String insertTypeToPayload(String receivedMessage) throws JsonProcessingException {
-        JsonNode rootNode = mapper.readTree(receivedMessage);
-        String type = rootNode.path("type").asText();
-        ((ObjectNode) rootNode.path("payload")).put("type", type);
+    private void addThrottleMessageToQueue(Message message, List<ClientThread> lagging, ClientThread producer, TopicData topicData) {
+        if (!topicData.getState().tryThrottleFeedback(System.currentTimeMillis(), THROTTLE_FEEDBACK_INTERVAL_MS))
+            return;
 
-        return mapper.writeValueAsString(rootNode);
+        ClientThread slowest = lagging.get(0);
+        for (ClientThread subscriber : lagging) {
+            if (subscriber.getOutboundQueue().getQueuedBytes() > slowest.getOutboundQueue().getQueuedBytes())
+                slowest = subscriber;
+        }
+
+        FeedbackPayload feedbackPayload = createFeedbackPayload(false, "Topic throttled: " + lagging.size()
+                + " lagging subscribers (slowest: " + slowest + ", " + slowest.getOutboundQueue().size() + " messages, "
+                + slowest.getOutboundQueue().getQueuedBytes() + " bytes queued)");
+        feedbackPayload.setType(THROTTLE.getValue());
+        feedbackPayload.setTimestampOfMessage(message.getTimestamp());
+        feedbackPayload.setTopicOfMessage(message.getTopic());
+
+        Message throttleMessage = new Message(feedbackPayload.getType(), serverController.getServerId(),
+                "logs", message.getMode(), message.getTimestamp(), feedbackPayload);
+
+        addMessageToQueue(throttleMessage, producer);
     }
 
 
-    private String removeTypeFromPayload(String receivedMessage) throws JsonProcessingException {
-        JsonNode rootNode = mapper.readTree(receivedMessage);
-        ((ObjectNode) rootNode.path("payload")).remove("type");
-        return mapper.writeValueAsString(rootNode);
+    private void addAckMessageToQueue(AckTracker.PendingAck pendingAck) {
+        FeedbackPayload feedbackPayload = createFeedbackPayload(true, "Acknowledged " + pendingAck.getMessagesCount() + " messages");
+        feedbackPayload.setTimestampOfMessage(pendingAck.getLastTimestamp());
+        feedbackPayload.setTopicOfMessage(pendingAck.getTopic());
+
+        Message ackMessage = new Message(feedbackPayload.getType(), serverController.getServerId(),
+                "logs", "producer", pendingAck.getLastTimestamp(), feedbackPayload);
+
+        addMessageToQueue(ackMessage, pendingAck.getProducer());
     }
 
 
-    private String removeFieldFromJson(String json, String fieldName) throws IOException {
-        JsonNode jsonNode = mapper.readTree(json);
-        if (jsonNode instanceof ObjectNode) {
-            ((ObjectNode) jsonNode).remove(fieldName);
-        }
-        return mapper.writeValueAsString(jsonNode);
+    private void addReplayMessageToQueue(JournalReplay replay) {
+        if (replay.getSubscriber().getOutboundQueue().isClosed())
+            return;
+
+        FeedbackPayload feedbackPayload = replay.isSubscribed()
+                ? createFeedbackPayload(true, "Successfully subscribed topic: " + replay.getTopic() + " (replayed "
+                        + replay.getReplayedMessages() + " messages" + (replay.getReplayedMessages() > 0
+                        ? ", last offset " + (replay.getNextOffset() - 1) : "") + ")")
+                : createFeedbackPayload(false, "Topic does not exist");
+        feedbackPayload.setTimestampOfMessage(replay.getRequestTimestamp());
+        feedbackPayload.setTopicOfMessage(replay.getTopic());
+
+        Message replayMessage = new Message(feedbackPayload.getType(), serverController.getServerId(),
+                "logs", "subscriber", replay.getRequestTimestamp(), feedbackPayload);
+
+        addMessageToQueue(replayMessage, replay.getSubscriber());
     }
 
 
-    private boolean changingExistingId(ClientThread client, Message message) {
-        String currentClientId = client.getClientId();
-        String clientIdFromMessage = message.getSenderId();
-        return currentClientId != null && !clientIdFromMessage.equals(currentClientId);
+    private List<ClientThread> forwardMessage(Message message, List<ClientThread> recipients, TopicData topicData, byte[] encodedJson) {
+        retain(message, topicData, encodedJson);
+        String key = messageKey(message);
+        String conflationKey = key == null ? null : message.getTopic() + '\u0000' + key;
+
+        return messagesQueueDriver.addMessageToSendQueue(new Notification(message, forwardEncoder, recipients, encodedJson,
+                conflationKey, topicData));
     }
 
 
-    private boolean isPermitted(String clientId, ClientThread client) {
-        Map<String, TopicData> topics = serverController.getTopics();
+    private byte[] encodeForRetention(Message message, TopicData topicData) {
+        if (topicData == null || (topicData.getJournal() == null && !topicData.isLastValue() && topicData.getCompaction() == null))
+            return null;
 
-        for (TopicData topicData : topics.values()) {
-            ClientThread producer = topicData.getProducer();
-            if (producer.getClientId().equals(clientId) && !producer.equals(client))
-                return false;
+        try {
+            return forwardEncoder.encode(message, WireFormat.JSON);
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+            return null;
         }
+    }
 
-        return true;
+
+    private boolean compact(Message message, TopicData topicData, byte[] encodedJson) {
+        String key = messageKey(message);
+        if (encodedJson == null || topicData.getCompaction() == null || key == null)
+            return true;
+
+        return topicData.getCompaction().put(key, encodedJson);
     }
 
 
-    private void addErrorMessageToQueue(Message message, String error, ClientThread recipient) {
-        if (message == null)
+    private void retain(Message message, TopicData topicData, byte[] encodedJson) {
+        if (encodedJson == null)
             return;
 
-        try {
-            FeedbackPayload feedbackPayload = createFeedbackPayload(false, error);
-            feedbackPayload.setTimestampOfMessage(message.getTimestamp());
-            feedbackPayload.setTopicOfMessage(message.getTopic());
+        if (topicData.getJournal() != null)
+            appendToJournal(topicData.getJournal(), message.getTopic(), encodedJson);
 
-            message.setType(feedbackPayload.getType());
-            message.setPayload(createFeedbackPayload(false, error));
-            message.setSenderId(serverController.getServerConfig().getServerId());
+        if (topicData.isLastValue())
+            serverController.getLastValueCache().put(message.getTopic(), encodedJson);
+    }
 
-            addMessageToQueue(mapper.writeValueAsString(message), recipient);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+
+    private void appendToJournal(TopicJournal journal, String topic, byte[] encodedJson) {
+        try {
+            journal.append(encodedJson);
+        } catch (IOException e) {
+            System.err.println("Journal append failed for topic " + topic + ": " + e.getMessage());
         }
     }
 
 
-    private void addMessageToQueue(String message, List<ClientThread> recipients) {
-        messagesQueueDriver.addMessageToSendQueue(message, recipients);
+    private void addMessageToQueue(Message message, List<ClientThread> recipients) {
+        messagesQueueDriver.addMessageToSendQueue(new Notification(message, feedbackEncoder, recipients));
     }
 
 
-    private void addMessageToQueue(String message, ClientThread recipient) {
+    private void addMessageToQueue(Message message, ClientThread recipient) {
         addMessageToQueue(message, Collections.singletonList(recipient));
     }
 
@@ -298,7 +487,7 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
     private FeedbackPayload register(ClientThread producer, Message message) {
         RegisterPayload payload = (RegisterPayload) message.getPayload();
 
-        Optional<String> errorMessage = Validator.validatePayload(payload, RegisterPayload.class);
+        Optional<String> errorMessage = Validator.validatePayload(payload);
         if (errorMessage.isPresent())
             return createFeedbackPayload(false, errorMessage.get());
 
@@ -312,33 +501,242 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
 
 
     private FeedbackPayload registerTopic(ClientThread producer, Message message) {
-        if (topicsDriver.topicExists(message.getTopic()))
-            return createFeedbackPayload(false, "Topic already exists");
+        RegisterPayload payload = (RegisterPayload) message.getPayload();
+
+        if (SubscriptionTrie.isPattern(message.getTopic()))
+            return createFeedbackPayload(false, "Topic name cannot contain wildcards");
+
+        Optional<AckPolicy> ackPolicy = AckPolicy.from(payload.getAck(), payload.getAckEvery(), payload.getAckIntervalMs());
+        if (ackPolicy.isEmpty())
+            return createFeedbackPayload(false, "Invalid ack mode");
+
+        TopicJournal journal = null;
+        if (payload.isJournal()) {
+            JournalStore journalStore = serverController.getJournalStore();
+            if (!journalStore.isEnabled())
+                return createFeedbackPayload(false, "Journal is disabled");
+
+            try {
+                journal = journalStore.open(message.getTopic());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return createFeedbackPayload(false, "Cannot open journal");
+            }
+        }
+
+        CompactedTopic compaction = null;
+        if (payload.isCompacted()) {
+            Config config = serverController.getServerConfig();
+            compaction = new CompactedTopic(config.getCompactedTopicMaxBytes(), config.isCompactedTopicOffHeap());
+        }
+
+        TopicOptions options = new TopicOptions(ackPolicy.get(), journal, payload.isLastValue(), compaction);
+        if (!topicsDriver.addTopic(message.getTopic(), new TopicData(producer, options)))
+            return createFeedbackPayload(false, topicsDriver.topicExists(message.getTopic()) ? "Topic already exists" : "Given ID is busy");
+
+        serverController.getLastValueCache().remove(message.getTopic());
 
-        topicsDriver.addTopic(message.getTopic(), new TopicData(producer));
         return createFeedbackPayload(true, "Successfully registered topic: " + message.getTopic());
     }
 
 
     private FeedbackPayload addSubscription(ClientThread subscriber, Message message) {
-        if (!topicsDriver.topicExists(message.getTopic()))
+        Optional<String> groupError = validateGroup((RegisterPayload) message.getPayload());
+        if (groupError.isPresent())
+            return createFeedbackPayload(false, groupError.get());
+
+        if (SubscriptionTrie.isPattern(message.getTopic()))
+            return addWildcardSubscription(subscriber, message);
+
+        TopicData topicData = topicsDriver.getTopic(message.getTopic());
+        if (topicData == null)
             return createFeedbackPayload(false, "Topic does not exist");
 
-        if (topicsDriver.getTopic(message.getTopic()).getSubscribers().contains(subscriber))
+        if (topicsDriver.getClientTopics(subscriber).subscribedTopics().contains(message.getTopic())
+                || journalReplayer.isReplaying(subscriber, message.getTopic()))
             return createFeedbackPayload(false, "You already subscribes this topic");
 
-        topicsDriver.addSubscriber(message.getTopic(), subscriber);
+        RegisterPayload payload = (RegisterPayload) message.getPayload();
+        boolean replayRequested = payload.getReplayFromOffset() != null || payload.getReplayFromTimestamp() != null;
+
+        if (replayRequested && topicData.getJournal() == null)
+            return createFeedbackPayload(false, "Topic has no journal");
+
+        Optional<SubscriptionOptions> subscriptionOptions = subscriptionOptions(payload);
+        if (subscriptionOptions.isEmpty())
+            return createFeedbackPayload(false, "Invalid filter expression");
+
+        if (!applyBackpressure(subscriber, payload))
+            return createFeedbackPayload(false, "Unknown backpressure policy");
+
+        if (replayRequested) {
+            startReplay(subscriber, message, topicData.getJournal(), subscriptionOptions.get());
+            return null;
+        }
+
+        if (topicData.getCompaction() != null) {
+            CompactedTopic compaction = topicData.getCompaction();
+            List<ByteBuffer> snapshot = compaction.snapshot();
+            if (!sendSnapshot(subscriber, snapshot))
+                return createFeedbackPayload(false, "Snapshot could not be delivered, subscription rejected");
+
+            if (!topicsDriver.addSubscriber(message.getTopic(), subscriber, subscriptionOptions.get()))
+                return createFeedbackPayload(false, "Topic does not exist");
+
+            long rejected = compaction.getRejectedUpdates();
+            return createFeedbackPayload(true, "Successfully subscribed topic: " + message.getTopic() + " (snapshot of " + snapshot.size() + " keys"
+                    + (rejected > 0 ? ", " + rejected + " updates rejected at capacity" : "") + ")");
+        }
+
+        if (topicData.isLastValue() && !sendLastValue(subscriber, message.getTopic()))
+            return createFeedbackPayload(false, "Last value could not be delivered, subscription rejected");
+
+        if (!topicsDriver.addSubscriber(message.getTopic(), subscriber, subscriptionOptions.get()))
+            return createFeedbackPayload(false, "Topic does not exist");
+
         return createFeedbackPayload(true, "Successfully subscribed topic: " + message.getTopic());
     }
 
 
+    private FeedbackPayload addWildcardSubscription(ClientThread subscriber, Message message) {
+        String pattern = message.getTopic();
+        if (!SubscriptionTrie.isValidPattern(pattern))
+            return createFeedbackPayload(false, "Invalid topic pattern");
+
+        RegisterPayload payload = (RegisterPayload) message.getPayload();
+        if (payload.getReplayFromOffset() != null || payload.getReplayFromTimestamp() != null)
+            return createFeedbackPayload(false, "Replay requires an exact topic");
+
+        Optional<SubscriptionOptions> subscriptionOptions = subscriptionOptions(payload);
+        if (subscriptionOptions.isEmpty())
+            return createFeedbackPayload(false, "Invalid filter expression");
+
+        if (!applyBackpressure(subscriber, payload))
+            return createFeedbackPayload(false, "Unknown backpressure policy");
+
+        if (!topicsDriver.addSubscriber(pattern, subscriber, subscriptionOptions.get()))
+            return createFeedbackPayload(false, "You already subscribes this topic");
+
+        return createFeedbackPayload(true, "Successfully subscribed topic pattern: " + pattern
+                + " (matching " + topicsDriver.countMatchingTopics(pattern) + " topics)");
+    }
+
+
+    private Optional<String> validateGroup(RegisterPayload payload) {
+        if (payload.getGroup() != null && payload.getGroup().isBlank())
+            return Optional.of("Group name must not be blank");
+
+        if (payload.getGroupStrategy() == null)
+            return Optional.empty();
+
+        if (payload.getGroup() == null)
+            return Optional.of("Group strategy requires a group");
+
+        if (GroupStrategy.fromValue(payload.getGroupStrategy()).isEmpty())
+            return Optional.of("Unknown group strategy");
+
+        return Optional.empty();
+    }
+
+
+    private Optional<SubscriptionOptions> subscriptionOptions(RegisterPayload payload) {
+        GroupStrategy groupStrategy = GroupStrategy.fromValue(payload.getGroupStrategy()).orElse(GroupStrategy.ROUND_ROBIN);
+
+        if (payload.getFilter() == null)
+            return Optional.of(new SubscriptionOptions(payload.isConflate(), null, payload.getGroup(), groupStrategy));
+
+        return SubscriptionFilter.compile(payload.getFilter())
+                .map(filter -> new SubscriptionOptions(payload.isConflate(), filter, payload.getGroup(), groupStrategy));
+    }
+
+
+    private boolean applyBackpressure(ClientThread subscriber, RegisterPayload payload) {
+        String backpressure = payload.getBackpressure();
+        if (backpressure == null)
+            return true;
+
+        Optional<BackpressurePolicy> policy = BackpressurePolicy.fromValue(backpressure);
+        if (policy.isEmpty())
+            return false;
+
+        subscriber.getOutboundQueue().setPolicy(policy.get());
+        return true;
+    }
+
+
+    private boolean sendLastValue(ClientThread subscriber, String topic) {
+        ByteBuffer lastValue = serverController.getLastValueCache().get(topic);
+        if (lastValue == null)
+            return true;
+
+        WireFormat format = subscriber.getWireFormat();
+        ByteBuffer content = format == WireFormat.JSON ? lastValue : transcode(lastValue, format);
+
+        return content != null && isQueued(subscriber, subscriber.enqueue(content));
+    }
+
+
+    private boolean sendSnapshot(ClientThread subscriber, List<ByteBuffer> snapshot) {
+        if (snapshot.isEmpty())
+            return true;
+
+        WireFormat format = subscriber.getWireFormat();
+        ByteBuffer[] content = new ByteBuffer[snapshot.size()];
+
+        for (int i = 0; i < content.length; i++) {
+            content[i] = format == WireFormat.JSON ? snapshot.get(i) : transcode(snapshot.get(i), format);
+            if (content[i] == null)
+                return false;
+        }
+
+        return isQueued(subscriber, subscriber.enqueue(content));
+    }
+
+
+    private boolean isQueued(ClientThread subscriber, OfferResult result) {
+        if (result == OfferResult.OVERFLOW) {
+            System.err.println("Outbound lag limit exceeded, disconnecting " + subscriber);
+            subscriber.disconnect();
+            return false;
+        }
+
+        return result == OfferResult.ACCEPTED || subscriber.getOutboundQueue().getPolicy() != BackpressurePolicy.DROP_NEWEST;
+    }
+
+
+    private void startReplay(ClientThread subscriber, Message message, TopicJournal journal, SubscriptionOptions subscriptionOptions) {
+        RegisterPayload payload = (RegisterPayload) message.getPayload();
+        long fromOffset = payload.getReplayFromOffset() != null
+                ? payload.getReplayFromOffset()
+                : journal.offsetForTimestamp(payload.getReplayFromTimestamp().toEpochMilli());
+
+        journalReplayer.start(new JournalReplay(subscriber, message.getTopic(), journal, subscriptionOptions,
+                message.getTimestamp(), fromOffset));
+        journalReplayer.pump().forEach(this::addReplayMessageToQueue);
+    }
+
+
+    private ByteBuffer transcode(ByteBuffer journalEntry, WireFormat format) {
+        byte[] json = new byte[journalEntry.remaining()];
+        journalEntry.get(journalEntry.position(), json);
+
+        try {
+            Message message = mapper.readValue(json, Message.class);
+            return ByteBuffer.wrap(forwardEncoder.encode(message, format));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
     /* STATUS */
 
 
     private FeedbackPayload status(Message message) {
         StatusPayload payload = (StatusPayload) message.getPayload();
 
-        Optional<String> errorMessage = Validator.validatePayload(payload, StatusPayload.class);
+        Optional<String> errorMessage = Validator.validatePayload(payload);
         if (errorMessage.isPresent())
             return createFeedbackPayload(false, errorMessage.get());
 
@@ -346,10 +744,9 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
         statusResponsePayload.setSuccess(true);
 
         try {
-            String mappedStatusResponsePayload = mapper.writeValueAsString(statusResponsePayload);
-            mappedStatusResponsePayload = removeFieldFromJson(mappedStatusResponsePayload, "type");
+            String mappedStatusResponsePayload = forwardEncoder.encodeAsString(statusResponsePayload);
             return createFeedbackPayload(true, mappedStatusResponsePayload);
-        } catch (IOException e) {
+        } catch (JsonProcessingException e) {
             return createFeedbackPayload(false, "Unexpected error");
         }
 
@@ -366,25 +763,73 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
         if (validationError.isPresent())
             return new MessageResponse(null, Collections.singletonList(client), false, validationError.get());
 
-        try {
-            TopicData topicData = topicsDriver.getTopic(message.getTopic());
-            String content = mapper.writeValueAsString(message);
-            content = removeTypeFromPayload(content);
+        TopicData topicData = topicsDriver.getTopic(message.getTopic());
+        if (topicData == null)
+            return new MessageResponse(null, Collections.singletonList(client), false, "Topic does not exists");
 
-            List<ClientThread> recipients = new ArrayList<>(topicData.getSubscribers());
+        if (topicData.getCompaction() != null && messageKey(message) == null)
+            return new MessageResponse(null, Collections.singletonList(client), false, "Compacted topic requires message key");
 
-            return new MessageResponse(content, recipients, true, null);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-            return new MessageResponse(null, Collections.singletonList(client), false, "Unexpected error");
+        List<ClientThread> recipients = topicData.getRecipients(messageHeaders(message));
+
+        return new MessageResponse(message, recipients, true, null, topicData);
+    }
+
+
+    private FeedbackPayload acknowledge(ClientThread producer, Message message, TopicData topicData, int subscribersCount) {
+        AckPolicy ackPolicy = topicData == null ? AckPolicy.PER_MESSAGE : topicData.getAckPolicy();
+
+        switch (ackPolicy.mode()) {
+            case NONE:
+                return null;
+
+            case CUMULATIVE:
+                AckTracker.PendingAck pendingAck = ackTracker.record(message.getTopic(), producer, ackPolicy,
+                        messagesCount(message), message.getTimestamp());
+                if (pendingAck != null)
+                    addAckMessageToQueue(pendingAck);
+                return null;
+
+            default:
+                return createFeedbackPayload(subscribersCount > 0, sentSummary(message, subscribersCount));
         }
     }
 
 
-    private Optional<String> validateMessage(ClientThread client, Message message) {
-        MessagePayload payload = (MessagePayload) message.getPayload();
+    private String messageKey(Message message) {
+        if (message.getPayload() instanceof MessagePayload messagePayload)
+            return messagePayload.getKey();
+
+        return null;
+    }
+
+
+    private Map<String, String> messageHeaders(Message message) {
+        if (message.getPayload() instanceof MessagePayload messagePayload)
+            return messagePayload.getHeaders();
+
+        return null;
+    }
+
+
+    private int messagesCount(Message message) {
+        if (message.getPayload() instanceof BatchPayload batchPayload)
+            return batchPayload.getMessages().size();
+
+        return 1;
+    }
 
-        Optional<String> errorMessage = Validator.validatePayload(payload, MessagePayload.class);
+
+    private String sentSummary(Message message, int subscribersCount) {
+        if (message.getPayload() instanceof BatchPayload batchPayload)
+            return "Sent " + batchPayload.getMessages().size() + " messages to " + subscribersCount + " subscribers";
+
+        return "Sent to " + subscribersCount + " subscribers";
+    }
+
+
+    private Optional<String> validateMessage(ClientThread client, Message message) {
+        Optional<String> errorMessage = Validator.validatePayload(message.getPayload());
         if (errorMessage.isPresent())
             return errorMessage;
 
@@ -400,19 +845,75 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
     }
 
 
+    /* FILE */
+
+
+    private FeedbackPayload fileTransfer(ClientThread client, Message message) {
+        if (message.getType().equals("file-resume"))
+            return resumeFile(client, message);
+
+        Optional<String> validationError = validateMessage(client, message);
+        if (validationError.isPresent())
+            return createFeedbackPayload(false, validationError.get());
+
+        String topic = message.getTopic();
+
+        return switch (message.getType()) {
+            case "file-begin" -> {
+                Optional<String> error = fileTransfers.begin(topic, client.getClientId(), message);
+                String fileId = ((FileBeginPayload) message.getPayload()).getFileId();
+                yield createFeedbackPayload(error.isEmpty(), error.orElse("File transfer started: " + fileId));
+            }
+
+            case "file-chunk" -> {
+                Optional<String> error = fileTransfers.write(topic, (FileChunkPayload) message.getPayload());
+                yield error.map(e -> createFeedbackPayload(false, e)).orElse(null);
+            }
+
+            default -> {
+                TopicData topicData = topicsDriver.getTopic(topic);
+                if (topicData == null)
+                    yield createFeedbackPayload(false, "Topic does not exists");
+
+                List<ClientThread> subscribers = topicData.getRecipients(null);
+                FileEndPayload payload = (FileEndPayload) message.getPayload();
+                Optional<String> error = fileTransfers.complete(topic, payload, subscribers);
+                yield createFeedbackPayload(error.isEmpty(), error.orElse("File received, delivering to "
+                        + subscribers.size() + " subscribers"));
+            }
+        };
+    }
+
+
+    private FeedbackPayload resumeFile(ClientThread subscriber, Message message) {
+        FileResumePayload payload = (FileResumePayload) message.getPayload();
+
+        Optional<String> errorMessage = Validator.validatePayload(payload);
+        if (errorMessage.isPresent())
+            return createFeedbackPayload(false, errorMessage.get());
+
+        if (!topicsDriver.isTopicSubscriber(subscriber, message.getTopic()))
+            return createFeedbackPayload(false, "You are not this topic subscriber");
+
+        Optional<String> error = fileTransfers.resume(message.getTopic(), subscriber, payload.getFileId(), payload.getOffset());
+        return createFeedbackPayload(error.isEmpty(), error.orElse("Resuming file: " + payload.getFileId()
+                + " from offset " + payload.getOffset()));
+    }
+
+
     /* WITHDRAW */
 
 
     private FeedbackPayload withdraw(ClientThread client, Message message) {
         WithdrawPayload payload = (WithdrawPayload) message.getPayload();
 
-        Optional<String> errorMessage = Validator.validatePayload(payload, WithdrawPayload.class);
+        Optional<String> errorMessage = Validator.validatePayload(payload);
         if (errorMessage.isPresent())
             return createFeedbackPayload(false, errorMessage.get());
 
         String topicName = message.getTopic();
 
-        if (!topicsDriver.topicExists(topicName))
+        if (!SubscriptionTrie.isPattern(topicName) && !topicsDriver.topicExists(topicName))
             return createFeedbackPayload(false, "Topic does not exists");
 
         switch (message.getMode()) {
@@ -424,7 +925,10 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
                 break;
 
             case "subscriber":
-                if (topicsDriver.isTopicSubscriber(client, topicName)) {
+                if (journalReplayer.cancel(client, topicName))
+                    return createFeedbackPayload(true, "Successfully unsubscribed topic: " + topicName);
+
+                if (topicsDriver.getClientTopics(client).subscribedTopics().contains(topicName)) {
                     topicsDriver.unregisterSubscription(topicName, client);
                     return createFeedbackPayload(true, "Successfully unsubscribed topic: " + topicName);
                 }
@@ -441,12 +945,12 @@ public class ReceivedMessagesQueueMonitorThread extends Thread {
     private ConfigResponse config(Message message) {
         ConfigPayload payload = (ConfigPayload) message.getPayload();
 
-        Optional<String> errorMessage = Validator.validatePayload(payload, ConfigPayload.class);
+        Optional<String> errorMessage = Validator.validatePayload(payload);
         if (errorMessage.isPresent())
             return new ConfigResponse(errorMessage.get(), false);
 
         try {
-            Config config = serverController.getServerConfig();
+            ClientConfig config = ClientConfig.from(serverController.getServerConfig());
             String configJson = mapper.writeValueAsString(config);
             return new ConfigResponse(configJson, true);
 
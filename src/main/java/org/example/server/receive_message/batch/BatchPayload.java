@@ -0,0 +1,15 @@
+package org.example.server.receive_message.batch;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.example.server.receive_message.Payload;
+
+import java.util.List;
+
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class BatchPayload extends Payload {
+
+    private List<String> messages;
+
+}
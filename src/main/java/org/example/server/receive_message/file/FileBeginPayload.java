@@ -0,0 +1,19 @@
+package org.example.server.receive_message.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.example.server.receive_message.Payload;
+
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class FileBeginPayload extends Payload {
+
+    private String fileId;
+    private String name;
+    private long size;
+
+}
@@ -0,0 +1,22 @@
+package org.example.server.receive_message.file;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.example.server.receive_message.Payload;
+
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FileChunkPayload extends Payload {
+
+    private String fileId;
+    private long offset;
+    private Integer length;
+    private byte[] data;
+
+}
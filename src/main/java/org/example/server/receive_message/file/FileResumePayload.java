@@ -0,0 +1,14 @@
+package org.example.server.receive_message.file;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.example.server.receive_message.Payload;
+
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class FileResumePayload extends Payload {
+
+    private String fileId;
+    private long offset;
+
+}
@@ -1,16 +1,22 @@
 package org.example.server.receive_message.message;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.example.server.receive_message.Payload;
 
-import javax.validation.constraints.NotBlank;
+import java.util.Map;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class MessagePayload extends Payload {
 
-    @NotBlank
     private String message;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String key;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> headers;
+
 }
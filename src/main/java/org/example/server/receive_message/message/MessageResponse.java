@@ -3,6 +3,8 @@ package org.example.server.receive_message.message;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.example.client.ClientThread;
+import org.example.server.receive_message.Message;
+import org.example.server.topics.TopicData;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -13,18 +15,26 @@ import java.util.Set;
 @AllArgsConstructor
 public class MessageResponse {
 
-    private String content;
+    private Message content;
     private Set<ClientThread> recipients;
     private boolean success;
 
     private String error;
 
+    private TopicData topicData;
 
-    public MessageResponse(String content, List<ClientThread> recipients, boolean success, String error) {
+
+    public MessageResponse(Message content, List<ClientThread> recipients, boolean success, String error) {
+        this(content, recipients, success, error, null);
+    }
+
+
+    public MessageResponse(Message content, List<ClientThread> recipients, boolean success, String error, TopicData topicData) {
         this.content = content;
         this.recipients = new HashSet<>(recipients);
         this.success = success;
         this.error = error;
+        this.topicData = topicData;
     }
 
 
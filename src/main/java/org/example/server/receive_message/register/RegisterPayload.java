@@ -4,9 +4,24 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.example.server.receive_message.Payload;
 
+import java.time.Instant;
+
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class RegisterPayload extends Payload {
 
+    private String backpressure;
+    private String ack;
+    private Integer ackEvery;
+    private Integer ackIntervalMs;
+    private boolean journal;
+    private boolean lastValue;
+    private boolean compacted;
+    private boolean conflate;
+    private String filter;
+    private String group;
+    private String groupStrategy;
+    private Long replayFromOffset;
+    private Instant replayFromTimestamp;
 
 }
@@ -2,6 +2,9 @@ package org.example.server.receive_message.status;
 
 import lombok.Getter;
 import org.example.client.ClientThread;
+import org.example.server.journal.TopicJournal;
+import org.example.server.topics.CompactedTopic;
+import org.example.server.topics.SubscriptionGroup;
 import org.example.server.topics.TopicData;
 
 import java.util.ArrayList;
@@ -21,8 +24,14 @@ public class StatusResponseBuilder {
         for (Map.Entry<String, TopicData> entry : topics.entrySet()) {
             String topic = entry.getKey();
             String prodcuer = entry.getValue().getProducer().toString();
+            String ack = entry.getValue().getAckPolicy().describe();
+            TopicJournal topicJournal = entry.getValue().getJournal();
+            String journal = topicJournal == null ? null : topicJournal.describe();
+            CompactedTopic compactedTopic = entry.getValue().getCompaction();
+            String compaction = compactedTopic == null ? null : compactedTopic.describe();
             List<String> subscribers = entry.getValue().getSubscribers().stream().map(ClientThread::toString).toList();
-            topicStatusResponse.add(new TopicStatus(topic, prodcuer, subscribers));
+            List<String> groups = entry.getValue().getGroups().values().stream().map(SubscriptionGroup::describe).toList();
+            topicStatusResponse.add(new TopicStatus(topic, prodcuer, ack, journal, compaction, subscribers, groups));
         }
 
         return new StatusResponsePayload(topicStatusResponse);
@@ -11,6 +11,10 @@ public class TopicStatus {
 
     private String topic;
     private String producer;
+    private String ack;
+    private String journal;
+    private String compaction;
     private List<String> subscribers;
+    private List<String> groups;
 
 }
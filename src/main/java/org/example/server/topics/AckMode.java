@@ -0,0 +1,28 @@
+package org.example.server.topics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+@AllArgsConstructor
+public enum AckMode {
+
+    MESSAGE("message"),
+    CUMULATIVE("cumulative"),
+    NONE("none")
+    ;
+
+    @Getter
+    private final String value;
+
+
+    public static Optional<AckMode> fromValue(String value) {
+        for (AckMode mode : values()) {
+            if (mode.value.equals(value))
+                return Optional.of(mode);
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.server.topics;
+
+import java.util.Optional;
+
+import static org.example.settings.Settings.DEFAULT_ACK_EVERY_MESSAGES;
+import static org.example.settings.Settings.DEFAULT_ACK_INTERVAL_MS;
+
+public record AckPolicy(AckMode mode, int everyMessages, int intervalMs) {
+
+    public static final AckPolicy PER_MESSAGE = new AckPolicy(AckMode.MESSAGE, 1, 0);
+
+
+    public static Optional<AckPolicy> from(String mode, Integer everyMessages, Integer intervalMs) {
+        if (mode == null)
+            return Optional.of(PER_MESSAGE);
+
+        Optional<AckMode> ackMode = AckMode.fromValue(mode);
+        if (ackMode.isEmpty())
+            return Optional.empty();
+
+        if (ackMode.get() != AckMode.CUMULATIVE)
+            return Optional.of(new AckPolicy(ackMode.get(), 0, 0));
+
+        int every = everyMessages == null ? DEFAULT_ACK_EVERY_MESSAGES : everyMessages;
+        int interval = intervalMs == null ? DEFAULT_ACK_INTERVAL_MS : intervalMs;
+
+        if (every < 1 || interval < 1)
+            return Optional.empty();
+
+        return Optional.of(new AckPolicy(AckMode.CUMULATIVE, every, interval));
+    }
+
+
+    public String describe() {
+        if (mode != AckMode.CUMULATIVE)
+            return mode.getValue();
+
+        return mode.getValue() + " (every " + everyMessages + " messages or " + intervalMs + " ms)";
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.example.server.topics;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public record ClientTopics(Set<String> producedTopics, Set<String> subscribedTopics) {
+
+    public static final ClientTopics EMPTY = new ClientTopics(Collections.emptySet(), Collections.emptySet());
+
+
+    public ClientTopics withProducedTopic(String topicName) {
+        return new ClientTopics(with(producedTopics, topicName), subscribedTopics);
+    }
+
+
+    public ClientTopics withoutProducedTopic(String topicName) {
+        return new ClientTopics(without(producedTopics, topicName), subscribedTopics);
+    }
+
+
+    public ClientTopics withSubscribedTopic(String topicName) {
+        return new ClientTopics(producedTopics, with(subscribedTopics, topicName));
+    }
+
+
+    public ClientTopics withoutSubscribedTopic(String topicName) {
+        return new ClientTopics(producedTopics, without(subscribedTopics, topicName));
+    }
+
+
+    public boolean isEmpty() {
+        return producedTopics.isEmpty() && subscribedTopics.isEmpty();
+    }
+
+
+    public boolean participatesInOtherThan(String topicName) {
+        return producedTopics.size() + subscribedTopics.size()
+                > (producedTopics.contains(topicName) ? 1 : 0) + (subscribedTopics.contains(topicName) ? 1 : 0);
+    }
+
+
+    private static Set<String> with(Set<String> topics, String topicName) {
+        Set<String> updatedTopics = new HashSet<>(topics);
+        updatedTopics.add(topicName);
+        return Collections.unmodifiableSet(updatedTopics);
+    }
+
+
+    private static Set<String> without(Set<String> topics, String topicName) {
+        Set<String> updatedTopics = new HashSet<>(topics);
+        updatedTopics.remove(topicName);
+        return Collections.unmodifiableSet(updatedTopics);
+    }
+
+}
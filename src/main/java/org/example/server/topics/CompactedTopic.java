@@ -0,0 +1,69 @@
+package org.example.server.topics;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class CompactedTopic {
+
+    private final long maxBytes;
+    private final boolean offHeap;
+    private final LinkedHashMap<String, ByteBuffer> entries;
+    private long usedBytes;
+    private long rejectedUpdates;
+
+
+    public CompactedTopic(long maxBytes, boolean offHeap) {
+        this.maxBytes = maxBytes;
+        this.offHeap = offHeap;
+        this.entries = new LinkedHashMap<>();
+    }
+
+
+    public synchronized boolean put(String key, byte[] encodedJson) {
+        ByteBuffer previous = entries.get(key);
+        long updatedBytes = usedBytes - (previous == null ? 0 : previous.capacity()) + encodedJson.length;
+
+        if (updatedBytes > maxBytes) {
+            rejectedUpdates++;
+            return false;
+        }
+
+        entries.remove(key);
+        entries.put(key, store(encodedJson));
+        usedBytes = updatedBytes;
+        return true;
+    }
+
+
+    private ByteBuffer store(byte[] encodedJson) {
+        if (!offHeap)
+            return ByteBuffer.wrap(encodedJson).asReadOnlyBuffer();
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encodedJson.length);
+        buffer.put(encodedJson).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+
+    public synchronized long getRejectedUpdates() {
+        return rejectedUpdates;
+    }
+
+
+    public synchronized List<ByteBuffer> snapshot() {
+        List<ByteBuffer> snapshot = new ArrayList<>(entries.size());
+        for (ByteBuffer entry : entries.values())
+            snapshot.add(entry.duplicate());
+
+        return snapshot;
+    }
+
+
+    public synchronized String describe() {
+        return entries.size() + " keys, " + usedBytes + "/" + maxBytes + " bytes" + (offHeap ? " off-heap" : "")
+                + (rejectedUpdates > 0 ? ", " + rejectedUpdates + " updates rejected" : "");
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.example.server.topics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+@AllArgsConstructor
+public enum GroupStrategy {
+
+    ROUND_ROBIN("round-robin"),
+    LEAST_LOADED("least-loaded")
+    ;
+
+    @Getter
+    private final String value;
+
+
+    public static Optional<GroupStrategy> fromValue(String value) {
+        for (GroupStrategy strategy : values()) {
+            if (strategy.value.equals(value))
+                return Optional.of(strategy);
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.server.topics;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LastValueCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, ByteBuffer> values;
+    private long usedBytes;
+    private long evictions;
+
+
+    public LastValueCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.values = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+
+    public synchronized void put(String topic, byte[] encodedJson) {
+        remove(topic);
+
+        if (encodedJson.length > maxBytes)
+            return;
+
+        values.put(topic, ByteBuffer.wrap(encodedJson).asReadOnlyBuffer());
+        usedBytes += encodedJson.length;
+        evictOverBudget();
+    }
+
+
+    public synchronized ByteBuffer get(String topic) {
+        ByteBuffer value = values.get(topic);
+        return value == null ? null : value.duplicate();
+    }
+
+
+    public synchronized void remove(String topic) {
+        ByteBuffer previous = values.remove(topic);
+        if (previous != null)
+            usedBytes -= previous.capacity();
+    }
+
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, ByteBuffer>> iterator = values.entrySet().iterator();
+
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            usedBytes -= iterator.next().getValue().capacity();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+
+    public synchronized Map<String, Integer> getSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ByteBuffer> entry : values.entrySet())
+            sizes.put(entry.getKey(), entry.getValue().capacity());
+
+        return sizes;
+    }
+
+
+    public synchronized int getEntries() {
+        return values.size();
+    }
+
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+}
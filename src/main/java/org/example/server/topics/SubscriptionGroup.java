@@ -0,0 +1,68 @@
+package org.example.server.topics;
+
+import org.example.client.ClientThread;
+import org.example.server.filters.SubscriptionFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SubscriptionGroup {
+
+    private final String name;
+    private final GroupStrategy strategy;
+    private final List<ClientThread> members;
+    private final List<SubscriptionFilter> filters;
+    private final AtomicInteger next;
+
+
+    public SubscriptionGroup(String name, GroupStrategy strategy, AtomicInteger next) {
+        this.name = name;
+        this.strategy = strategy;
+        this.members = new ArrayList<>();
+        this.filters = new ArrayList<>();
+        this.next = next;
+    }
+
+
+    void addMember(ClientThread member, SubscriptionFilter filter) {
+        members.add(member);
+        filters.add(filter);
+    }
+
+
+    public ClientThread pick(Map<String, String> headers) {
+        int size = members.size();
+        int start = strategy == GroupStrategy.ROUND_ROBIN ? Math.floorMod(next.getAndIncrement(), size) : 0;
+        ClientThread picked = null;
+        long pickedBacklog = Long.MAX_VALUE;
+
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            SubscriptionFilter filter = filters.get(index);
+
+            if (filter != null && !filter.test(headers == null ? Collections.emptyMap() : headers))
+                continue;
+
+            ClientThread member = members.get(index);
+            if (strategy == GroupStrategy.ROUND_ROBIN)
+                return member;
+
+            long backlog = member.getOutboundQueue().getQueuedBytes();
+            if (backlog < pickedBacklog) {
+                picked = member;
+                pickedBacklog = backlog;
+            }
+        }
+
+        return picked;
+    }
+
+
+    public String describe() {
+        return name + " (" + strategy.getValue() + "): " + members;
+    }
+
+}
@@ -0,0 +1,9 @@
+package org.example.server.topics;
+
+import org.example.server.filters.SubscriptionFilter;
+
+public record SubscriptionOptions(boolean conflate, SubscriptionFilter filter, String group, GroupStrategy groupStrategy) {
+
+    public static final SubscriptionOptions DEFAULT = new SubscriptionOptions(false, null, null, null);
+
+}
@@ -0,0 +1,157 @@
+package org.example.server.topics;
+
+import org.example.client.ClientThread;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SubscriptionTrie {
+
+    private static final String LEVEL_SEPARATOR = "/";
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private final Node root;
+    private final Map<String, Map<ClientThread, SubscriptionOptions>> patterns;
+
+
+    public SubscriptionTrie() {
+        this.root = new Node();
+        this.patterns = new HashMap<>();
+    }
+
+
+    public static boolean isPattern(String topicName) {
+        for (String level : levels(topicName)) {
+            if (isWildcard(level))
+                return true;
+        }
+
+        return false;
+    }
+
+
+    public static boolean isValidPattern(String pattern) {
+        String[] levels = levels(pattern);
+
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+
+            if (level.equals(MULTI_LEVEL_WILDCARD) && i != levels.length - 1)
+                return false;
+
+            if (!isWildcard(level) && (level.contains(SINGLE_LEVEL_WILDCARD) || level.contains(MULTI_LEVEL_WILDCARD)))
+                return false;
+        }
+
+        return true;
+    }
+
+
+    private static boolean isWildcard(String level) {
+        return level.equals(SINGLE_LEVEL_WILDCARD) || level.equals(MULTI_LEVEL_WILDCARD);
+    }
+
+
+    public static boolean matches(String pattern, String topicName) {
+        String[] patternLevels = levels(pattern);
+        String[] topicLevels = levels(topicName);
+
+        for (int i = 0; i < patternLevels.length; i++) {
+            if (patternLevels[i].equals(MULTI_LEVEL_WILDCARD))
+                return true;
+
+            if (i >= topicLevels.length)
+                return false;
+
+            if (!patternLevels[i].equals(SINGLE_LEVEL_WILDCARD) && !patternLevels[i].equals(topicLevels[i]))
+                return false;
+        }
+
+        return patternLevels.length == topicLevels.length;
+    }
+
+
+    private static String[] levels(String topicName) {
+        return topicName.split(LEVEL_SEPARATOR, -1);
+    }
+
+
+    public boolean add(String pattern, ClientThread subscriber, SubscriptionOptions options) {
+        Node node = root;
+        for (String level : levels(pattern))
+            node = node.children.computeIfAbsent(level, ignored -> new Node());
+
+        if (node.subscriptions.putIfAbsent(subscriber, options) != null)
+            return false;
+
+        patterns.computeIfAbsent(pattern, ignored -> new LinkedHashMap<>()).put(subscriber, options);
+        return true;
+    }
+
+
+    public boolean remove(String pattern, ClientThread subscriber) {
+        Map<ClientThread, SubscriptionOptions> subscribers = patterns.get(pattern);
+        if (subscribers == null || subscribers.remove(subscriber) == null)
+            return false;
+
+        if (subscribers.isEmpty())
+            patterns.remove(pattern);
+
+        remove(root, levels(pattern), 0, subscriber);
+        return true;
+    }
+
+
+    private boolean remove(Node node, String[] levels, int depth, ClientThread subscriber) {
+        if (depth == levels.length) {
+            node.subscriptions.remove(subscriber);
+        } else {
+            Node child = node.children.get(levels[depth]);
+            if (child != null && remove(child, levels, depth + 1, subscriber))
+                node.children.remove(levels[depth]);
+        }
+
+        return node.subscriptions.isEmpty() && node.children.isEmpty();
+    }
+
+
+    public Map<ClientThread, SubscriptionOptions> match(String topicName) {
+        Map<ClientThread, SubscriptionOptions> matched = new LinkedHashMap<>();
+        match(root, levels(topicName), 0, matched);
+        return matched;
+    }
+
+
+    private void match(Node node, String[] levels, int depth, Map<ClientThread, SubscriptionOptions> matched) {
+        Node multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+        if (multiLevel != null)
+            multiLevel.subscriptions.forEach(matched::putIfAbsent);
+
+        if (depth == levels.length) {
+            node.subscriptions.forEach(matched::putIfAbsent);
+            return;
+        }
+
+        Node singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+        if (singleLevel != null)
+            match(singleLevel, levels, depth + 1, matched);
+
+        Node exact = node.children.get(levels[depth]);
+        if (exact != null)
+            match(exact, levels, depth + 1, matched);
+    }
+
+
+    public Map<String, Map<ClientThread, SubscriptionOptions>> getPatterns() {
+        return patterns;
+    }
+
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final Map<ClientThread, SubscriptionOptions> subscriptions = new LinkedHashMap<>();
+    }
+
+}
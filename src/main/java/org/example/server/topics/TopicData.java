@@ -2,23 +2,164 @@ package org.example.server.topics;
 
 import lombok.Data;
 import org.example.client.ClientThread;
+import org.example.server.filters.SubscriptionFilter;
+import org.example.server.journal.TopicJournal;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Data
 public class TopicData {
     private final ClientThread producer;
+    private final TopicOptions options;
+    private final TopicState state;
+    private final Map<ClientThread, SubscriptionOptions> subscriptions;
     private final Set<ClientThread> subscribers;
+    private final List<ClientThread> recipients;
+    private final Set<ClientThread> conflatingSubscribers;
+    private final List<ClientThread> unfilteredRecipients;
+    private final Map<SubscriptionFilter, List<ClientThread>> filteredRecipients;
+    private final Map<String, SubscriptionGroup> groups;
 
     public TopicData(ClientThread producer) {
-        this.producer = producer;
-        this.subscribers = new HashSet<>();
+        this(producer, TopicOptions.DEFAULT);
+    }
+
+    public TopicData(ClientThread producer, TopicOptions options) {
+        this(producer, options, new TopicState(), Collections.emptyMap());
     }
 
-    public TopicData(ClientThread producer, Set<ClientThread> subscribers) {
+    private TopicData(ClientThread producer, TopicOptions options, TopicState state, Map<ClientThread, SubscriptionOptions> subscriptions) {
         this.producer = producer;
-        this.subscribers = subscribers;
+        this.options = options;
+        this.state = state;
+        this.subscriptions = Collections.unmodifiableMap(new LinkedHashMap<>(subscriptions));
+        this.subscribers = this.subscriptions.keySet();
+        this.recipients = List.copyOf(this.subscribers);
+
+        Set<ClientThread> conflating = new HashSet<>();
+        List<ClientThread> unfiltered = new ArrayList<>();
+        Map<SubscriptionFilter, List<ClientThread>> filtered = new LinkedHashMap<>();
+        Map<String, SubscriptionGroup> sharedGroups = new LinkedHashMap<>();
+
+        for (Map.Entry<ClientThread, SubscriptionOptions> entry : this.subscriptions.entrySet()) {
+            if (entry.getValue().conflate())
+                conflating.add(entry.getKey());
+
+            SubscriptionFilter filter = entry.getValue().filter();
+            String group = entry.getValue().group();
+
+            if (group != null)
+                sharedGroups.computeIfAbsent(group, name -> new SubscriptionGroup(name, entry.getValue().groupStrategy(), state.groupCursor(name)))
+                        .addMember(entry.getKey(), filter);
+            else if (filter == null)
+                unfiltered.add(entry.getKey());
+            else
+                filtered.computeIfAbsent(filter, ignored -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        this.conflatingSubscribers = Collections.unmodifiableSet(conflating);
+        this.unfilteredRecipients = List.copyOf(unfiltered);
+        this.filteredRecipients = Collections.unmodifiableMap(filtered);
+        this.groups = Collections.unmodifiableMap(sharedGroups);
+    }
+
+
+    public AckPolicy getAckPolicy() {
+        return options.ackPolicy();
+    }
+
+
+    public TopicJournal getJournal() {
+        return options.journal();
+    }
+
+
+    public boolean isLastValue() {
+        return options.lastValue();
+    }
+
+
+    public CompactedTopic getCompaction() {
+        return options.compaction();
+    }
+
+
+    public List<ClientThread> getRecipients(Map<String, String> headers) {
+        if (filteredRecipients.isEmpty() && groups.isEmpty())
+            return recipients;
+
+        Map<String, String> messageHeaders = headers == null ? Collections.emptyMap() : headers;
+        List<ClientThread> matched = new ArrayList<>(unfilteredRecipients);
+
+        for (Map.Entry<SubscriptionFilter, List<ClientThread>> entry : filteredRecipients.entrySet()) {
+            if (entry.getKey().test(messageHeaders))
+                matched.addAll(entry.getValue());
+        }
+
+        for (SubscriptionGroup group : groups.values()) {
+            ClientThread member = group.pick(messageHeaders);
+            if (member != null)
+                matched.add(member);
+        }
+
+        return matched;
+    }
+
+
+    public ClientThread pickGroupMember(String group, Map<String, String> headers) {
+        SubscriptionGroup subscriptionGroup = groups.get(group);
+        return subscriptionGroup == null ? null : subscriptionGroup.pick(headers);
+    }
+
+
+    public String getGroup(ClientThread subscriber) {
+        if (groups.isEmpty())
+            return null;
+
+        return getSubscriptionOptions(subscriber).group();
+    }
+
+
+    public int getDistinctFilters() {
+        return filteredRecipients.size();
+    }
+
+
+    public SubscriptionOptions getSubscriptionOptions(ClientThread subscriber) {
+        return subscriptions.getOrDefault(subscriber, SubscriptionOptions.DEFAULT);
+    }
+
+
+    public TopicData withSubscriber(ClientThread subscriber, SubscriptionOptions subscriptionOptions) {
+        if (subscribers.contains(subscriber))
+            return this;
+
+        Map<ClientThread, SubscriptionOptions> updatedSubscriptions = new LinkedHashMap<>(subscriptions);
+        updatedSubscriptions.put(subscriber, subscriptionOptions);
+        return new TopicData(producer, options, state, updatedSubscriptions);
+    }
+
+
+    public TopicData withSubscriptions(Map<ClientThread, SubscriptionOptions> additionalSubscriptions) {
+        Map<ClientThread, SubscriptionOptions> updatedSubscriptions = new LinkedHashMap<>(subscriptions);
+        additionalSubscriptions.forEach(updatedSubscriptions::putIfAbsent);
+        return new TopicData(producer, options, state, updatedSubscriptions);
+    }
+
+
+    public TopicData withoutSubscriber(ClientThread subscriber) {
+        if (!subscribers.contains(subscriber))
+            return this;
+
+        Map<ClientThread, SubscriptionOptions> updatedSubscriptions = new LinkedHashMap<>(subscriptions);
+        updatedSubscriptions.remove(subscriber);
+        return new TopicData(producer, options, state, updatedSubscriptions);
     }
 
 }
@@ -0,0 +1,9 @@
+package org.example.server.topics;
+
+import org.example.server.journal.TopicJournal;
+
+public record TopicOptions(AckPolicy ackPolicy, TopicJournal journal, boolean lastValue, CompactedTopic compaction) {
+
+    public static final TopicOptions DEFAULT = new TopicOptions(AckPolicy.PER_MESSAGE, null, false, null);
+
+}
@@ -0,0 +1,341 @@
+package org.example.server.topics;
+
+import org.example.client.ClientThread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TopicRegistry {
+
+    private final Map<String, TopicData> topics;
+    private final Map<String, TopicData> routedTopics;
+    private final Map<String, TopicData> routedTopicsView;
+    private final SubscriptionTrie wildcardSubscriptions;
+    private final Map<ClientThread, ClientTopics> clientTopics;
+    private final Map<String, ClientThread> producers;
+    private final ReentrantLock writeLock;
+
+    public TopicRegistry() {
+        this.topics = new ConcurrentHashMap<>();
+        this.routedTopics = new ConcurrentHashMap<>();
+        this.routedTopicsView = Collections.unmodifiableMap(routedTopics);
+        this.wildcardSubscriptions = new SubscriptionTrie();
+        this.clientTopics = new ConcurrentHashMap<>();
+        this.producers = new ConcurrentHashMap<>();
+        this.writeLock = new ReentrantLock();
+    }
+
+
+    public boolean addTopic(String topicName, TopicData topicData) {
+        writeLock.lock();
+        try {
+            ClientThread owner = getProducer(topicData.getProducer().getClientId());
+            if (owner != null && owner != topicData.getProducer())
+                return false;
+
+            if (topics.putIfAbsent(topicName, topicData) != null)
+                return false;
+
+            route(topicName);
+
+            updateClientTopics(topicData.getProducer(), topicName, true, true);
+            for (ClientThread subscriber : topicData.getSubscribers())
+                updateClientTopics(subscriber, topicName, false, true);
+
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    public TopicData removeTopic(String topicName) {
+        writeLock.lock();
+        try {
+            TopicData topicData = topics.remove(topicName);
+            if (topicData == null)
+                return null;
+
+            routedTopics.remove(topicName);
+            updateClientTopics(topicData.getProducer(), topicName, true, false);
+            for (ClientThread subscriber : topicData.getSubscribers())
+                updateClientTopics(subscriber, topicName, false, false);
+
+            return topicData;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    public Map<String, TopicData> removeClient(ClientThread client) {
+        writeLock.lock();
+        try {
+            ClientTopics removed = clientTopics.remove(client);
+            if (removed == null)
+                return Collections.emptyMap();
+
+            Map<String, TopicData> removedTopics = new HashMap<>();
+
+            for (String topicName : removed.producedTopics()) {
+                TopicData topicData = topics.remove(topicName);
+                if (topicData == null)
+                    continue;
+
+                routedTopics.remove(topicName);
+                for (ClientThread subscriber : topicData.getSubscribers()) {
+                    if (subscriber != client)
+                        updateClientTopics(subscriber, topicName, false, false);
+                }
+
+                removedTopics.put(topicName, topicData);
+            }
+
+            for (String topicName : removed.subscribedTopics()) {
+                if (SubscriptionTrie.isPattern(topicName)) {
+                    if (wildcardSubscriptions.remove(topicName, client))
+                        routeMatching(topicName);
+                    continue;
+                }
+
+                TopicData topicData = topics.get(topicName);
+                if (topicData == null || !topicData.getSubscribers().contains(client))
+                    continue;
+
+                topics.put(topicName, topicData.withoutSubscriber(client));
+                route(topicName);
+            }
+
+            if (!removed.producedTopics().isEmpty())
+                updateProducerId(client, false);
+
+            return removedTopics;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    public boolean topicExists(String topicName) {
+        return routedTopics.containsKey(topicName);
+    }
+
+
+    public TopicData getTopic(String topicName) {
+        return routedTopics.get(topicName);
+    }
+
+
+    public boolean addSubscriber(String topicName, ClientThread subscriber, SubscriptionOptions subscriptionOptions) {
+        writeLock.lock();
+        try {
+            if (SubscriptionTrie.isPattern(topicName))
+                return addWildcardSubscriber(topicName, subscriber, subscriptionOptions);
+
+            TopicData topicData = topics.get(topicName);
+            if (topicData == null || topicData.getSubscribers().contains(subscriber))
+                return false;
+
+            topics.put(topicName, topicData.withSubscriber(subscriber, subscriptionOptions));
+            route(topicName);
+            updateClientTopics(subscriber, topicName, false, true);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    public boolean removeSubscriber(String topicName, ClientThread subscriber) {
+        writeLock.lock();
+        try {
+            if (SubscriptionTrie.isPattern(topicName))
+                return removeWildcardSubscriber(topicName, subscriber);
+
+            TopicData topicData = topics.get(topicName);
+            if (topicData == null || !topicData.getSubscribers().contains(subscriber))
+                return false;
+
+            topics.put(topicName, topicData.withoutSubscriber(subscriber));
+            route(topicName);
+            updateClientTopics(subscriber, topicName, false, false);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    private boolean addWildcardSubscriber(String pattern, ClientThread subscriber, SubscriptionOptions subscriptionOptions) {
+        if (!wildcardSubscriptions.add(pattern, subscriber, subscriptionOptions))
+            return false;
+
+        routeMatching(pattern);
+        updateClientTopics(subscriber, pattern, false, true);
+        return true;
+    }
+
+
+    private boolean removeWildcardSubscriber(String pattern, ClientThread subscriber) {
+        if (!wildcardSubscriptions.remove(pattern, subscriber))
+            return false;
+
+        routeMatching(pattern);
+        updateClientTopics(subscriber, pattern, false, false);
+        return true;
+    }
+
+
+    private void routeMatching(String pattern) {
+        for (String topicName : topics.keySet()) {
+            if (SubscriptionTrie.matches(pattern, topicName))
+                route(topicName);
+        }
+    }
+
+
+    private void route(String topicName) {
+        TopicData topicData = topics.get(topicName);
+        if (topicData == null) {
+            routedTopics.remove(topicName);
+            return;
+        }
+
+        Map<ClientThread, SubscriptionOptions> wildcardMatches = wildcardSubscriptions.match(topicName);
+        TopicData routed = wildcardMatches.isEmpty() ? topicData : topicData.withSubscriptions(wildcardMatches);
+        routed.getState().retainGroups(routed.getGroups().keySet());
+        routedTopics.put(topicName, routed);
+    }
+
+
+    public int countMatchingTopics(String pattern) {
+        int matching = 0;
+        for (String topicName : topics.keySet()) {
+            if (SubscriptionTrie.matches(pattern, topicName))
+                matching++;
+        }
+
+        return matching;
+    }
+
+
+    public ClientTopics getClientTopics(ClientThread client) {
+        return clientTopics.getOrDefault(client, ClientTopics.EMPTY);
+    }
+
+
+    public ClientThread getProducer(String producerId) {
+        if (producerId == null)
+            return null;
+
+        return producers.get(producerKey(producerId));
+    }
+
+
+    public boolean isSubscriberOrProducer(String topicNameToSkip, ClientThread client) {
+        return getClientTopics(client).participatesInOtherThan(topicNameToSkip);
+    }
+
+
+    public Map<String, TopicData> getTopics() {
+        return routedTopicsView;
+    }
+
+
+    public List<String> checkConsistency() {
+        writeLock.lock();
+        try {
+            List<String> violations = new ArrayList<>();
+            Map<ClientThread, ClientTopics> expected = new HashMap<>();
+
+            for (Map.Entry<String, TopicData> entry : topics.entrySet()) {
+                String topicName = entry.getKey();
+                TopicData topicData = entry.getValue();
+
+                expected.merge(topicData.getProducer(), ClientTopics.EMPTY.withProducedTopic(topicName),
+                        (current, added) -> current.withProducedTopic(topicName));
+
+                for (ClientThread subscriber : topicData.getSubscribers())
+                    expected.merge(subscriber, ClientTopics.EMPTY.withSubscribedTopic(topicName),
+                            (current, added) -> current.withSubscribedTopic(topicName));
+            }
+
+            for (Map.Entry<String, Map<ClientThread, SubscriptionOptions>> entry : wildcardSubscriptions.getPatterns().entrySet()) {
+                String pattern = entry.getKey();
+
+                for (ClientThread subscriber : entry.getValue().keySet())
+                    expected.merge(subscriber, ClientTopics.EMPTY.withSubscribedTopic(pattern),
+                            (current, added) -> current.withSubscribedTopic(pattern));
+            }
+
+            for (Map.Entry<ClientThread, ClientTopics> entry : expected.entrySet()) {
+                ClientTopics indexed = getClientTopics(entry.getKey());
+                if (!indexed.equals(entry.getValue()))
+                    violations.add("Client " + entry.getKey() + " indexed as " + indexed + ", expected " + entry.getValue());
+            }
+
+            for (Map.Entry<ClientThread, ClientTopics> entry : clientTopics.entrySet()) {
+                if (!expected.containsKey(entry.getKey()))
+                    violations.add("Client " + entry.getKey() + " indexed as " + entry.getValue() + " but has no topics");
+            }
+
+            for (Map.Entry<ClientThread, ClientTopics> entry : expected.entrySet()) {
+                ClientThread client = entry.getKey();
+                if (!entry.getValue().producedTopics().isEmpty() && producers.get(producerKey(client.getClientId())) != client)
+                    violations.add("Producer " + client + " is not the owner of its id");
+            }
+
+            for (Map.Entry<String, ClientThread> entry : producers.entrySet()) {
+                if (getClientTopics(entry.getValue()).producedTopics().isEmpty())
+                    violations.add("Producer id " + entry.getKey() + " owned by " + entry.getValue() + " without produced topics");
+            }
+
+            return violations;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    private void updateClientTopics(ClientThread client, String topicName, boolean producer, boolean added) {
+        ClientTopics current = getClientTopics(client);
+        ClientTopics updated;
+
+        if (producer)
+            updated = added ? current.withProducedTopic(topicName) : current.withoutProducedTopic(topicName);
+        else
+            updated = added ? current.withSubscribedTopic(topicName) : current.withoutSubscribedTopic(topicName);
+
+        if (updated.isEmpty())
+            clientTopics.remove(client);
+        else
+            clientTopics.put(client, updated);
+
+        if (producer)
+            updateProducerId(client, !updated.producedTopics().isEmpty());
+    }
+
+
+    private void updateProducerId(ClientThread client, boolean producing) {
+        String clientId = client.getClientId();
+        if (clientId == null)
+            return;
+
+        if (producing)
+            producers.putIfAbsent(producerKey(clientId), client);
+        else
+            producers.remove(producerKey(clientId), client);
+    }
+
+
+    private static String producerKey(String producerId) {
+        return producerId.toLowerCase(Locale.ROOT);
+    }
+
+}
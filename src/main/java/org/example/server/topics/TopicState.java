@@ -0,0 +1,39 @@
+package org.example.server.topics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TopicState {
+
+    private final AtomicLong lastThrottleFeedback;
+    private final Map<String, AtomicInteger> groupCursors;
+
+
+    public TopicState() {
+        this.lastThrottleFeedback = new AtomicLong();
+        this.groupCursors = new ConcurrentHashMap<>();
+    }
+
+
+    public boolean tryThrottleFeedback(long now, long intervalMs) {
+        long last = lastThrottleFeedback.get();
+        if (last != 0 && now - last < intervalMs)
+            return false;
+
+        return lastThrottleFeedback.compareAndSet(last, now);
+    }
+
+
+    AtomicInteger groupCursor(String group) {
+        return groupCursors.computeIfAbsent(group, name -> new AtomicInteger());
+    }
+
+
+    void retainGroups(Set<String> groups) {
+        groupCursors.keySet().retainAll(groups);
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.example.server.wire;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.server.receive_message.Payload;
+import org.example.server.receive_message.PayloadWithoutTypeMixIn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class WireEncoder {
+
+    private final Map<WireFormat, ObjectWriter> writers;
+
+    private WireEncoder(boolean withPayloadType) {
+        this.writers = new EnumMap<>(WireFormat.class);
+
+        for (WireFormat format : WireFormat.values()) {
+            ObjectMapper mapper = format.createMapper();
+            if (!withPayloadType)
+                mapper.addMixIn(Payload.class, PayloadWithoutTypeMixIn.class);
+
+            writers.put(format, mapper.writer());
+        }
+    }
+
+
+    public static WireEncoder withPayloadType() {
+        return new WireEncoder(true);
+    }
+
+
+    public static WireEncoder withoutPayloadType() {
+        return new WireEncoder(false);
+    }
+
+
+    public byte[] encode(Object value, WireFormat format) throws JsonProcessingException {
+        return writers.get(format).writeValueAsBytes(value);
+    }
+
+
+    public String encodeAsString(Object value) throws JsonProcessingException {
+        return new String(encode(value, WireFormat.JSON), StandardCharsets.UTF_8);
+    }
+
+}
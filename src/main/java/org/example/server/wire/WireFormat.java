@@ -0,0 +1,45 @@
+package org.example.server.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.Getter;
+
+@Getter
+public enum WireFormat {
+    JSON("json"),
+    SMILE("smile");
+
+    private final String value;
+
+    WireFormat(String value) {
+        this.value = value;
+    }
+
+
+    public static WireFormat detect(byte[] frame) {
+        if (frame.length >= 3 && startsWithSmileHeader(frame) && frame[2] == SmileConstants.HEADER_BYTE_3)
+            return SMILE;
+
+        return JSON;
+    }
+
+
+    public static boolean startsWithSmileHeader(byte[] frame) {
+        return frame.length >= 2
+                && frame[0] == SmileConstants.HEADER_BYTE_1
+                && frame[1] == SmileConstants.HEADER_BYTE_2;
+    }
+
+
+    public ObjectMapper createMapper() {
+        ObjectMapper mapper = switch (this) {
+            case SMILE -> new SmileMapper();
+            case JSON -> new ObjectMapper();
+        };
+
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+}
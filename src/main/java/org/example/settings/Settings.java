@@ -5,9 +5,63 @@ public class Settings {
 
     /* CLIENT */
     public static final String CLIENT_NOT_CONNECTED_MSG = "Client is not connected!";
+    public static final String FRAME_TOO_LARGE_MSG = "Frame exceeds size limit";
+
+
+    /* FRAMING */
+    public static final String DEFAULT_FRAME_MODE = "newline";
 
 
     /* RECEIVED MESSAGES QUEUE MONITOR */
-    public static final int QUEUE_CHECK_INTERVAL_MS = 1;
+    public static final int RECEIVED_MESSAGES_BATCH_SIZE = 64;
+
+
+    /* TRANSPORT */
+    public static final String DEFAULT_TRANSPORT = "blocking";
+    public static final int IDLE_CHECK_INTERVAL_MS = 100;
+    public static final String DEFAULT_CLIENT_EXECUTOR = "platform";
+    public static final int PINNING_EVENT_THRESHOLD_MS = 0;
+
+
+    /* DELIVERY */
+    public static final int DEFAULT_OUTBOUND_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_OUTBOUND_QUEUE_MAX_BYTES = 16 * 1024 * 1024;
+    public static final String DEFAULT_BACKPRESSURE_POLICY = "disconnect";
+    public static final int DEFAULT_BACKPRESSURE_BLOCK_TIMEOUT_MS = 100;
+    public static final int MAX_BACKPRESSURE_BLOCK_TIMEOUT_MS = 250;
+    public static final int THROTTLE_FEEDBACK_INTERVAL_MS = 1000;
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 64;
+    public static final int WRITE_BATCH_MAX_BYTES = 256 * 1024;
+
+
+    /* ACKNOWLEDGEMENTS */
+    public static final int DEFAULT_ACK_EVERY_MESSAGES = 100;
+    public static final int DEFAULT_ACK_INTERVAL_MS = 1000;
+
+
+    /* JOURNAL */
+    public static final int DEFAULT_JOURNAL_SEGMENT_BYTES = 16 * 1024 * 1024;
+    public static final long DEFAULT_JOURNAL_RETENTION_BYTES = 256L * 1024 * 1024;
+    public static final int JOURNAL_REPLAY_BATCH_MESSAGES = 256;
+    public static final long JOURNAL_REPLAY_WINDOW_BYTES = 1024 * 1024;
+    public static final int JOURNAL_REPLAY_POLL_MS = 10;
+
+
+    /* LAST VALUE CACHE */
+    public static final long DEFAULT_LAST_VALUE_CACHE_BYTES = 64L * 1024 * 1024;
+
+
+    /* COMPACTED TOPICS */
+    public static final long DEFAULT_COMPACTED_TOPIC_MAX_BYTES = 16L * 1024 * 1024;
+
+
+    /* FILE TRANSFER */
+    public static final long DEFAULT_FILE_MAX_BYTES = 1024L * 1024 * 1024;
+    public static final int FILE_CHUNK_SIZE = 64 * 1024;
+    public static final long FILE_DELIVERY_WINDOW_BYTES = 1024 * 1024;
+    public static final int FILE_DELIVERY_POLL_MS = 10;
+    public static final int FILE_CLEANUP_INTERVAL_MS = 1000;
+    public static final long FILE_TRANSFER_IDLE_TIMEOUT_MS = 60_000;
+    public static final long FILE_SPOOL_RETENTION_MS = 10 * 60_000;
 
 }
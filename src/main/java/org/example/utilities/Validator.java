@@ -1,13 +1,20 @@
 package org.example.utilities;
 
-import javax.validation.ConstraintViolation;
-import javax.validation.Validation;
-import javax.validation.ValidatorFactory;
+import org.example.server.journal.JournalSegment;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.receive_message.Message;
+import org.example.server.receive_message.Payload;
+import org.example.server.receive_message.batch.BatchPayload;
+import org.example.server.receive_message.file.FileBeginPayload;
+import org.example.server.receive_message.file.FileChunkPayload;
+import org.example.server.receive_message.file.FileEndPayload;
+import org.example.server.receive_message.file.FileResumePayload;
+import org.example.server.receive_message.message.MessagePayload;
+
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -16,7 +23,12 @@ public class Validator {
     private static final String CIDR_REGEX = "^([0-9]{1,3}\\.){3}[0-9]{1,3}/([0-9]|[1-2][0-9]|3[0-2])$";
     private static final Pattern CIDR_PATTERN = Pattern.compile(CIDR_REGEX);
 
-    private final static ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+    private static final String MESSAGE_BLANK_ERROR = "Payload validation error: message must not be blank; ";
+    private static final String MESSAGES_EMPTY_ERROR = "Payload validation error: messages must not be empty; ";
+    private static final String KEY_BLANK_ERROR = "Payload validation error: key must not be blank; ";
+    private static final String FILE_ID_BLANK_ERROR = "Payload validation error: fileId must not be blank; ";
+    private static final String NEGATIVE_VALUE_ERROR = "Payload validation error: size and offset must not be negative; ";
+    private static final String DATA_EMPTY_ERROR = "Payload validation error: data must not be empty; ";
 
 
     private Validator() {
@@ -49,30 +61,108 @@ public class Validator {
     }
 
 
-    public static <T> Set<ConstraintViolation<T>> validateJsonObject(T object) {
-        if (object == null)
-            return null;
+    public static boolean isValidMessage(Message message) {
+        if (message == null)
+            return false;
+
+        return isValidMessageType(message.getType())
+                && message.getSenderId() != null
+                && message.getTopic() != null
+                && isValidMode(message.getMode())
+                && message.getTimestamp() != null
+                && message.getPayload() != null;
+    }
+
+
+    private static boolean isValidMessageType(String type) {
+        if (type == null)
+            return false;
+
+        return switch (type) {
+            case "register", "withdraw", "message", "status", "config", "file", "batch", "file-begin", "file-chunk", "file-end", "file-resume" -> true;
+            default -> false;
+        };
+    }
+
+
+    private static boolean isValidMode(String mode) {
+        if (mode == null)
+            return false;
 
-        javax.validation.Validator validator = factory.getValidator();
-        return validator.validate(object);
+        return mode.equals("producer") || mode.equals("subscriber");
     }
 
 
-    public static <T> Optional<String> validatePayload(T payload, Class<T> payloadClass) {
+    public static Optional<String> validatePayload(Payload payload) {
         if (payload == null)
             return Optional.of("Payload is null");
 
-        Set<ConstraintViolation<T>> payloadViolations = factory.getValidator().validate(payload);
-        if (!payloadViolations.isEmpty()) {
-            StringBuilder errors = new StringBuilder("Payload validation error: ");
-            payloadViolations.forEach(violation -> errors.append(violation.getPropertyPath()).append(" ").append(violation.getMessage()).append("; "));
-            return Optional.of(errors.toString());
+        if (payload instanceof MessagePayload messagePayload && isBlank(messagePayload.getMessage()))
+            return Optional.of(MESSAGE_BLANK_ERROR);
+
+        if (payload instanceof MessagePayload messagePayload && messagePayload.getKey() != null && messagePayload.getKey().isBlank())
+            return Optional.of(KEY_BLANK_ERROR);
+
+        if (payload instanceof BatchPayload batchPayload)
+            return validateBatch(batchPayload.getMessages());
+
+        if (payload instanceof FileBeginPayload fileBegin)
+            return validateFilePart(fileBegin.getFileId(), fileBegin.getSize());
+
+        if (payload instanceof FileChunkPayload fileChunk) {
+            if (fileChunk.getData() == null || fileChunk.getData().length == 0)
+                return Optional.of(DATA_EMPTY_ERROR);
+
+            return validateFilePart(fileChunk.getFileId(), fileChunk.getOffset());
+        }
+
+        if (payload instanceof FileEndPayload fileEnd)
+            return validateFilePart(fileEnd.getFileId(), 0);
+
+        if (payload instanceof FileResumePayload fileResume)
+            return validateFilePart(fileResume.getFileId(), fileResume.getOffset());
+
+        return Optional.empty();
+    }
+
+
+    private static Optional<String> validateFilePart(String fileId, long sizeOrOffset) {
+        if (isBlank(fileId))
+            return Optional.of(FILE_ID_BLANK_ERROR);
+
+        if (sizeOrOffset < 0)
+            return Optional.of(NEGATIVE_VALUE_ERROR);
+
+        return Optional.empty();
+    }
+
+
+    private static Optional<String> validateBatch(List<String> messages) {
+        if (messages == null || messages.isEmpty())
+            return Optional.of(MESSAGES_EMPTY_ERROR);
+
+        for (String message : messages) {
+            if (isBlank(message))
+                return Optional.of(MESSAGE_BLANK_ERROR);
         }
 
         return Optional.empty();
     }
 
 
+    private static boolean isBlank(String value) {
+        if (value == null)
+            return true;
+
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ')
+                return false;
+        }
+
+        return true;
+    }
+
+
     public static boolean validateCIDRList(List<String> ipAddresses) {
         for (String cidr : ipAddresses) {
             if (!isValidCIDR(cidr))
@@ -103,6 +193,49 @@ public class Validator {
 
 
     public static boolean isValidIPAddress(String ip) {
+        if (ip == null || ip.isEmpty())
+            return false;
+
+        if (ip.indexOf(':') >= 0)
+            return isValidIPv6Literal(ip);
+
+        return isValidIPv4Address(ip);
+    }
+
+
+    private static boolean isValidIPv4Address(String ip) {
+        int octets = 0;
+        int position = 0;
+
+        while (position <= ip.length()) {
+            int end = ip.indexOf('.', position);
+            if (end < 0)
+                end = ip.length();
+
+            int length = end - position;
+            if (length < 1 || length > 3 || (length > 1 && ip.charAt(position) == '0'))
+                return false;
+
+            int value = 0;
+            for (int i = position; i < end; i++) {
+                char c = ip.charAt(i);
+                if (c < '0' || c > '9')
+                    return false;
+
+                value = value * 10 + (c - '0');
+            }
+
+            if (value > 255 || ++octets > 4)
+                return false;
+
+            position = end + 1;
+        }
+
+        return octets == 4;
+    }
+
+
+    private static boolean isValidIPv6Literal(String ip) {
         try {
             InetAddress inet = InetAddress.getByName(ip);
             return inet.getHostAddress().equals(ip);
@@ -115,4 +248,39 @@ public class Validator {
     public static boolean isValidSizeLimit(int sizeLimit) {
         return sizeLimit > 0;
     }
+
+
+    public static boolean isValidFrameMode(String frameMode) {
+        return frameMode.equals("newline") || frameMode.equals("length");
+    }
+
+
+    public static boolean isValidTransport(String transport) {
+        return transport.equals("blocking") || transport.equals("nio");
+    }
+
+
+    public static boolean isValidBackpressurePolicy(String policy) {
+        return BackpressurePolicy.fromValue(policy).isPresent();
+    }
+
+
+    public static boolean isValidJournalSegmentSize(int segmentBytes, int sizeLimit) {
+        return segmentBytes >= sizeLimit + JournalSegment.RECORD_HEADER_SIZE;
+    }
+
+
+    public static boolean isValidFileMaxBytes(long fileMaxBytes) {
+        return fileMaxBytes > 0 && fileMaxBytes <= Integer.MAX_VALUE;
+    }
+
+
+    public static boolean isValidWriteLinger(int writeLingerMs) {
+        return writeLingerMs >= 0;
+    }
+
+
+    public static boolean isValidClientExecutor(String clientExecutor) {
+        return clientExecutor.equals("platform") || clientExecutor.equals("virtual");
+    }
 }
@@ -0,0 +1,63 @@
+package org.example.client;
+
+import org.example.client.framing.FrameCodec;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.messages_to_send.OutboundQueue;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StubClient extends ClientThread {
+
+    private boolean disconnected;
+
+
+    public StubClient(String clientId) {
+        this(clientId, new OutboundQueue(1024, 16 * 1024 * 1024, BackpressurePolicy.DISCONNECT, 0), FrameCodec.create("newline", 1024 * 1024));
+    }
+
+
+    public StubClient(String clientId, OutboundQueue outboundQueue, FrameCodec frameCodec) {
+        super(clientId);
+        this.outboundQueue = outboundQueue;
+        this.frameCodec = frameCodec;
+    }
+
+
+    public List<ByteBuffer[]> drain() {
+        List<ByteBuffer[]> messages = new ArrayList<>();
+        outboundQueue.drainTo(messages, Integer.MAX_VALUE, Long.MAX_VALUE);
+        return messages;
+    }
+
+
+    public boolean isDisconnected() {
+        return disconnected;
+    }
+
+
+    @Override
+    public void stopThread() {
+    }
+
+
+    @Override
+    public void disconnect() {
+        disconnected = true;
+        outboundQueue.close();
+    }
+
+
+    @Override
+    protected void scheduleFlush() {
+    }
+
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        return null;
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.example.client.framing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameCodecTest {
+
+    @Test
+    void createsCodecForFrameMode() {
+        assertInstanceOf(LengthPrefixedFrameCodec.class, FrameCodec.create("length", 16));
+        assertInstanceOf(NewlineFrameCodec.class, FrameCodec.create("newline", 16));
+        assertInstanceOf(NewlineFrameCodec.class, FrameCodec.create("other", 16));
+
+        assertTrue(FrameCodec.create("length", 16).supportsBinaryFrames());
+        assertFalse(FrameCodec.create("newline", 16).supportsBinaryFrames());
+    }
+
+
+    @Test
+    void newlineSplitsFramesAndStripsCarriageReturn() throws IOException {
+        FrameCodec codec = new NewlineFrameCodec(16);
+
+        assertEquals(List.of("a", "bc", "d"), read(codec, "a\nbc\r\n\n\r\nd\n"));
+    }
+
+
+    @Test
+    void newlineKeepsPartialFrameUntilTerminated() throws IOException {
+        FrameCodec codec = new NewlineFrameCodec(16);
+
+        assertEquals(List.of("first"), read(codec, "first\nsec"));
+        assertEquals(List.of(), read(codec, "on"));
+        assertEquals(List.of(), read(codec, "d\r"));
+        assertEquals(List.of("second"), read(codec, "\n"));
+        assertEquals(List.of("third"), read(codec, "third\n"));
+    }
+
+
+    @Test
+    void newlineAcceptsFrameAtSizeLimit() throws IOException {
+        FrameCodec codec = new NewlineFrameCodec(4);
+
+        assertEquals(List.of("abcd"), read(codec, "abcd\r\n"));
+    }
+
+
+    @Test
+    void newlineRejectsOversizedFrame() {
+        assertThrows(IOException.class, () -> read(new NewlineFrameCodec(4), "abcde\n"));
+        assertThrows(IOException.class, () -> read(new NewlineFrameCodec(4), "abcdef"));
+    }
+
+
+    @Test
+    void newlineEncodesTrailerOnly() {
+        FrameCodec codec = new NewlineFrameCodec(16);
+
+        assertEquals(0, codec.encodeHeader(5).remaining());
+        ByteBuffer trailer = codec.encodeTrailer();
+        assertEquals('\n', trailer.get());
+        assertEquals(1, codec.encodeTrailer().remaining());
+    }
+
+
+    @Test
+    void lengthPrefixedSplitsFrames() throws IOException {
+        FrameCodec codec = new LengthPrefixedFrameCodec(16);
+
+        assertEquals(List.of("a", "bc"), read(codec, concat(frame("a"), frame(""), frame("bc"))));
+    }
+
+
+    @Test
+    void lengthPrefixedKeepsPartialHeaderAndBody() throws IOException {
+        FrameCodec codec = new LengthPrefixedFrameCodec(16);
+        byte[] frames = concat(frame("hello"), frame("world"));
+
+        assertEquals(List.of(), read(codec, slice(frames, 0, 2)));
+        assertEquals(List.of(), read(codec, slice(frames, 2, 6)));
+        assertEquals(List.of("hello"), read(codec, slice(frames, 6, 11)));
+        assertEquals(List.of("world"), read(codec, slice(frames, 11, frames.length)));
+    }
+
+
+    @Test
+    void lengthPrefixedRejectsInvalidLength() {
+        assertThrows(IOException.class, () -> read(new LengthPrefixedFrameCodec(4), slice(frame("abcde"), 0, 6)));
+        assertThrows(IOException.class, () -> read(new LengthPrefixedFrameCodec(4), ByteBuffer.allocate(4).putInt(-1).array()));
+    }
+
+
+    @Test
+    void lengthPrefixedEncodesHeaderOnly() {
+        FrameCodec codec = new LengthPrefixedFrameCodec(16);
+
+        ByteBuffer header = codec.encodeHeader(300);
+        assertEquals(4, header.remaining());
+        assertEquals(300, header.getInt());
+        assertEquals(0, codec.encodeTrailer().remaining());
+    }
+
+
+    private static List<String> read(FrameCodec codec, String data) throws IOException {
+        return read(codec, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private static List<String> read(FrameCodec codec, byte[] data) throws IOException {
+        codec.getReadBuffer().put(data);
+
+        List<byte[]> frames = new ArrayList<>();
+        codec.decodeFrames(frames);
+
+        return frames.stream().map(frame -> new String(frame, StandardCharsets.UTF_8)).toList();
+    }
+
+
+    private static byte[] frame(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes).array();
+    }
+
+
+    private static byte[] concat(byte[]... parts) {
+        ByteBuffer buffer = ByteBuffer.allocate(Arrays.stream(parts).mapToInt(part -> part.length).sum());
+        for (byte[] part : parts)
+            buffer.put(part);
+
+        return buffer.array();
+    }
+
+
+    private static byte[] slice(byte[] bytes, int from, int to) {
+        return Arrays.copyOfRange(bytes, from, to);
+    }
+
+}
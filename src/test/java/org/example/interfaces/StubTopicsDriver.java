@@ -0,0 +1,115 @@
+package org.example.interfaces;
+
+import org.example.client.ClientThread;
+import org.example.server.messages_to_send.SharedDelivery;
+import org.example.server.topics.ClientTopics;
+import org.example.server.topics.SubscriptionOptions;
+import org.example.server.topics.TopicData;
+import org.example.server.topics.TopicRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StubTopicsDriver implements TopicsDriver {
+
+    private final TopicRegistry topicRegistry = new TopicRegistry();
+    private final List<SharedDelivery> redelivered = new ArrayList<>();
+
+
+    public List<SharedDelivery> getRedelivered() {
+        return redelivered;
+    }
+
+
+    @Override
+    public boolean addTopic(String topicName, TopicData topicData) {
+        return topicRegistry.addTopic(topicName, topicData);
+    }
+
+
+    @Override
+    public void removeTopic(String topicName) {
+        topicRegistry.removeTopic(topicName);
+    }
+
+
+    @Override
+    public boolean topicExists(String topicName) {
+        return topicRegistry.topicExists(topicName);
+    }
+
+
+    @Override
+    public ClientThread getProducer(String producerId) {
+        return topicRegistry.getProducer(producerId);
+    }
+
+
+    @Override
+    public boolean addSubscriber(String topicName, ClientThread subscriber, SubscriptionOptions subscriptionOptions) {
+        return topicRegistry.addSubscriber(topicName, subscriber, subscriptionOptions);
+    }
+
+
+    @Override
+    public int countMatchingTopics(String pattern) {
+        return topicRegistry.countMatchingTopics(pattern);
+    }
+
+
+    @Override
+    public void redeliverShared(List<SharedDelivery> deliveries) {
+        redelivered.addAll(deliveries);
+    }
+
+
+    @Override
+    public TopicData getTopic(String topicName) {
+        return topicRegistry.getTopic(topicName);
+    }
+
+
+    @Override
+    public boolean isSubscriberOrProducer(String topicNameToSkip, ClientThread client) {
+        return topicRegistry.isSubscriberOrProducer(topicNameToSkip, client);
+    }
+
+
+    @Override
+    public ClientTopics getClientTopics(ClientThread client) {
+        return topicRegistry.getClientTopics(client);
+    }
+
+
+    @Override
+    public void unregisterTopic(String topicName) {
+        topicRegistry.removeTopic(topicName);
+    }
+
+
+    @Override
+    public void unregisterSubscription(String topicName, ClientThread client) {
+        topicRegistry.removeSubscriber(topicName, client);
+    }
+
+
+    @Override
+    public void unregisterClient(ClientThread client) {
+        topicRegistry.removeClient(client);
+    }
+
+
+    @Override
+    public boolean isTopicProducer(ClientThread client, String topicName) {
+        TopicData topicData = topicRegistry.getTopic(topicName);
+        return topicData != null && client.equals(topicData.getProducer());
+    }
+
+
+    @Override
+    public boolean isTopicSubscriber(ClientThread client, String topicName) {
+        TopicData topicData = topicRegistry.getTopic(topicName);
+        return topicData != null && topicData.getSubscribers().contains(client);
+    }
+
+}
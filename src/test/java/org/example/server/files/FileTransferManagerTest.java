@@ -0,0 +1,237 @@
+package org.example.server.files;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.client.StubClient;
+import org.example.client.framing.FrameCodec;
+import org.example.config.Config;
+import org.example.interfaces.StubTopicsDriver;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.messages_to_send.OutboundQueue;
+import org.example.server.receive_message.Message;
+import org.example.server.receive_message.file.FileBeginPayload;
+import org.example.server.receive_message.file.FileChunkPayload;
+import org.example.server.receive_message.file.FileEndPayload;
+import org.example.server.topics.SubscriptionOptions;
+import org.example.server.topics.TopicData;
+import org.example.server.wire.WireEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.settings.Settings.FILE_CLEANUP_INTERVAL_MS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileTransferManagerTest {
+
+    private static final int SIZE_LIMIT = 64;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path spoolDirectory;
+
+    private StubTopicsDriver topicsDriver;
+    private FileTransferManager manager;
+    private byte[] content;
+
+
+    @BeforeEach
+    void setUp() {
+        Config config = Config.builder()
+                .sizeLimit(SIZE_LIMIT)
+                .fileSpoolDirectory(spoolDirectory.toString())
+                .fileMaxBytes(1000)
+                .build();
+
+        topicsDriver = new StubTopicsDriver();
+        topicsDriver.addTopic("t", new TopicData(new StubClient("producer")));
+        manager = new FileTransferManager(config, WireEncoder.withoutPayloadType(), topicsDriver);
+
+        content = new byte[100];
+        for (int i = 0; i < content.length; i++)
+            content[i] = (byte) i;
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+
+    @Test
+    void rejectsOversizedAndDuplicateTransfers() {
+        assertEquals(Optional.of("File exceeds size limit"), manager.begin("t", "producer", begin("big", 1001)));
+        assertEquals(Optional.empty(), manager.begin("t", "producer", begin("f1", 100)));
+        assertEquals(Optional.of("File transfer already exists"), manager.begin("t", "producer", begin("f1", 100)));
+    }
+
+
+    @Test
+    void validatesChunkOffsets() {
+        manager.begin("t", "producer", begin("f1", 10));
+
+        assertEquals(Optional.of("Unknown file transfer"), manager.write("t", chunk("f2", 0, new byte[5])));
+        assertEquals(Optional.of("Unexpected chunk offset, expected 0"), manager.write("t", chunk("f1", 5, new byte[5])));
+        assertEquals(Optional.empty(), manager.write("t", chunk("f1", 0, new byte[5])));
+        assertEquals(Optional.empty(), manager.write("t", chunk("f1", 0, new byte[5])));
+        assertEquals(Optional.of("Chunk exceeds announced file size"), manager.write("t", chunk("f1", 5, new byte[6])));
+        assertEquals(Optional.of("File incomplete, received 5 of 10 bytes"), manager.complete("t", new FileEndPayload("f1"), List.of()));
+    }
+
+
+    @Test
+    void deliversInlineChunksToNewlineSubscriber() throws IOException {
+        StubClient subscriber = subscribe(new StubClient("subscriber"));
+        upload("f1");
+
+        assertEquals(Optional.empty(), manager.complete("t", new FileEndPayload("f1"), List.of(subscriber)));
+        assertEquals(Optional.of("File transfer already completed"), manager.complete("t", new FileEndPayload("f1"), List.of(subscriber)));
+
+        List<JsonNode> messages = decode(subscriber.drain());
+        assertEquals(List.of("file-begin", "file-chunk", "file-chunk", "file-chunk", "file-chunk", "file-end"), types(messages));
+        assertEquals(100, messages.get(0).path("payload").path("size").asLong());
+        assertEquals(32, messages.get(2).path("payload").path("offset").asLong());
+        assertArrayEquals(content, inlineData(messages));
+    }
+
+
+    @Test
+    void deliversBinaryChunksToLengthPrefixedSubscriber() throws IOException {
+        StubClient subscriber = subscribe(new StubClient("subscriber",
+                new OutboundQueue(1024, 1024 * 1024, BackpressurePolicy.DISCONNECT, 0), FrameCodec.create("length", SIZE_LIMIT)));
+        upload("f1");
+        manager.complete("t", new FileEndPayload("f1"), List.of(subscriber));
+
+        List<ByteBuffer[]> messages = subscriber.drain();
+        assertEquals(List.of("file-begin", "file-chunk", "file-chunk", "file-end"), types(decode(messages)));
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        for (ByteBuffer[] message : messages) {
+            if (message.length == 2)
+                received.write(bytes(message[1]));
+        }
+
+        assertEquals(64, decode(messages).get(1).path("payload").path("length").asInt());
+        assertArrayEquals(content, received.toByteArray());
+    }
+
+
+    @Test
+    void resumesFromOffset() throws IOException {
+        StubClient subscriber = subscribe(new StubClient("subscriber"));
+        upload("f1");
+        manager.complete("t", new FileEndPayload("f1"), List.of(subscriber));
+        subscriber.drain();
+
+        assertEquals(Optional.of("File not available"), manager.resume("t", subscriber, "f2", 0));
+        assertEquals(Optional.of("Offset beyond end of file"), manager.resume("t", subscriber, "f1", 101));
+        assertEquals(Optional.empty(), manager.resume("t", subscriber, "f1", 96));
+
+        List<JsonNode> messages = decode(subscriber.drain());
+        assertEquals(List.of("file-begin", "file-chunk", "file-end"), types(messages));
+        assertArrayEquals(Arrays.copyOfRange(content, 96, 100), inlineData(messages));
+    }
+
+
+    @Test
+    void skipsClientsThatAreNotSubscribed() {
+        StubClient subscriber = new StubClient("subscriber");
+        upload("f1");
+        manager.complete("t", new FileEndPayload("f1"), List.of(subscriber));
+
+        assertTrue(subscriber.drain().isEmpty());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(FILE_CLEANUP_INTERVAL_MS), manager.nanosUntilNextPump());
+    }
+
+
+    @Test
+    void retriesThrottledChunksUnderDropNewest() throws IOException {
+        StubClient subscriber = subscribe(new StubClient("subscriber",
+                new OutboundQueue(2, 1024 * 1024, BackpressurePolicy.DROP_NEWEST, 0), FrameCodec.create("newline", SIZE_LIMIT)));
+        upload("f1");
+        manager.complete("t", new FileEndPayload("f1"), List.of(subscriber));
+
+        List<JsonNode> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.addAll(decode(subscriber.drain()));
+            manager.pump();
+        }
+
+        assertEquals(List.of("file-begin", "file-chunk", "file-chunk", "file-chunk", "file-chunk", "file-end"), types(messages));
+        assertArrayEquals(content, inlineData(messages));
+    }
+
+
+    private StubClient subscribe(StubClient subscriber) {
+        topicsDriver.addSubscriber("t", subscriber, SubscriptionOptions.DEFAULT);
+        return subscriber;
+    }
+
+
+    private void upload(String fileId) {
+        manager.begin("t", "producer", begin(fileId, content.length));
+
+        for (int offset = 0; offset < content.length; offset += 40)
+            manager.write("t", chunk(fileId, offset, Arrays.copyOfRange(content, offset, Math.min(offset + 40, content.length))));
+    }
+
+
+    private static Message begin(String fileId, long size) {
+        return new Message("file-begin", "producer", "t", "producer", Instant.now(), new FileBeginPayload(fileId, "a.bin", size));
+    }
+
+
+    private static FileChunkPayload chunk(String fileId, long offset, byte[] data) {
+        return new FileChunkPayload(fileId, offset, null, data);
+    }
+
+
+    private List<JsonNode> decode(List<ByteBuffer[]> messages) throws IOException {
+        List<JsonNode> decoded = new ArrayList<>();
+        for (ByteBuffer[] message : messages)
+            decoded.add(mapper.readTree(bytes(message[0])));
+
+        return decoded;
+    }
+
+
+    private static List<String> types(List<JsonNode> messages) {
+        return messages.stream().map(message -> message.path("type").asText()).toList();
+    }
+
+
+    private static byte[] inlineData(List<JsonNode> messages) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (JsonNode message : messages) {
+            if (message.path("type").asText().equals("file-chunk"))
+                data.write(message.path("payload").path("data").binaryValue());
+        }
+
+        return data.toByteArray();
+    }
+
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+
+}
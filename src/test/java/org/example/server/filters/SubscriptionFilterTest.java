@@ -0,0 +1,80 @@
+package org.example.server.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionFilterTest {
+
+    @Test
+    void rejectsInvalidExpressions() {
+        assertTrue(SubscriptionFilter.compile(null).isEmpty());
+        assertTrue(SubscriptionFilter.compile("  ").isEmpty());
+        assertTrue(SubscriptionFilter.compile("region").isEmpty());
+        assertTrue(SubscriptionFilter.compile("= eu").isEmpty());
+        assertTrue(SubscriptionFilter.compile("price > cheap").isEmpty());
+    }
+
+
+    @Test
+    void equalFiltersShareCanonicalForm() {
+        SubscriptionFilter first = compile("b = 1 and a = 'x'");
+        SubscriptionFilter second = compile("a=x AND b = 1");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals("a = x and b = 1", first.toString());
+    }
+
+
+    @Test
+    void matchesQuotedStrings() {
+        SubscriptionFilter filter = compile("region = \"eu west\"");
+
+        assertTrue(filter.test(Map.of("region", "eu west")));
+        assertFalse(filter.test(Map.of("region", "eu")));
+    }
+
+
+    @Test
+    void comparesNumbersNumerically() {
+        SubscriptionFilter filter = compile("price > 10");
+
+        assertTrue(filter.test(Map.of("price", "10.5")));
+        assertTrue(filter.test(Map.of("price", "100")));
+        assertFalse(filter.test(Map.of("price", "10")));
+        assertFalse(filter.test(Map.of("price", "9")));
+        assertFalse(filter.test(Map.of("price", "expensive")));
+
+        assertTrue(compile("count = 1").test(Map.of("count", "1.0")));
+        assertTrue(compile("count <= 1").test(Map.of("count", "1")));
+    }
+
+
+    @Test
+    void handlesMissingHeaders() {
+        assertFalse(compile("region = eu").test(Map.of()));
+        assertFalse(compile("price >= 1").test(Map.of()));
+        assertTrue(compile("region != eu").test(Map.of()));
+    }
+
+
+    @Test
+    void requiresEveryCondition() {
+        SubscriptionFilter filter = compile("region = eu and price < 5");
+
+        assertTrue(filter.test(Map.of("region", "eu", "price", "4")));
+        assertFalse(filter.test(Map.of("region", "eu", "price", "6")));
+        assertFalse(filter.test(Map.of("region", "us", "price", "4")));
+    }
+
+
+    private static SubscriptionFilter compile(String expression) {
+        return SubscriptionFilter.compile(expression).orElseThrow();
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.example.server.journal;
+
+import org.example.client.StubClient;
+import org.example.client.framing.FrameCodec;
+import org.example.interfaces.StubTopicsDriver;
+import org.example.server.messages_to_send.BackpressurePolicy;
+import org.example.server.messages_to_send.OutboundQueue;
+import org.example.server.topics.SubscriptionOptions;
+import org.example.server.topics.TopicData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    private TopicJournal journal;
+    private StubTopicsDriver topicsDriver;
+    private JournalReplayer replayer;
+
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = TopicJournal.open(directory, 1024, 0, 0);
+        topicsDriver = new StubTopicsDriver();
+        topicsDriver.addTopic("t", new TopicData(new StubClient("producer")));
+        replayer = new JournalReplayer(topicsDriver, (content, format) -> content);
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+
+    @Test
+    void replaysJournalThenSubscribes() throws IOException {
+        append("a", "b", "c");
+        StubClient subscriber = new StubClient("subscriber");
+        JournalReplay replay = start(subscriber, 0);
+
+        assertTrue(replayer.isReplaying(subscriber, "t"));
+        assertEquals(List.of(replay), replayer.pump());
+
+        assertEquals(List.of("a", "b", "c"), text(subscriber.drain()));
+        assertEquals(3, replay.getReplayedMessages());
+        assertEquals(3, replay.getNextOffset());
+        assertTrue(replay.isSubscribed());
+        assertTrue(topicsDriver.isTopicSubscriber(subscriber, "t"));
+        assertFalse(replayer.isReplaying(subscriber, "t"));
+    }
+
+
+    @Test
+    void startsFromRequestedOffset() throws IOException {
+        append("a", "b", "c");
+        StubClient subscriber = new StubClient("subscriber");
+        start(subscriber, 2);
+
+        replayer.pump();
+
+        assertEquals(List.of("c"), text(subscriber.drain()));
+    }
+
+
+    @Test
+    void pausesWhileSubscriberQueueIsHalfFull() throws IOException {
+        append("a", "b", "c", "d", "e");
+        StubClient subscriber = new StubClient("subscriber",
+                new OutboundQueue(4, 1024, BackpressurePolicy.DISCONNECT, 0), FrameCodec.create("newline", 1024));
+        JournalReplay replay = start(subscriber, 0);
+
+        assertEquals(List.of(), replayer.pump());
+        assertEquals(List.of("a", "b"), text(subscriber.drain()));
+        assertFalse(replay.isSubscribed());
+
+        assertEquals(List.of(), replayer.pump());
+        assertEquals(List.of("c", "d"), text(subscriber.drain()));
+
+        assertEquals(List.of(replay), replayer.pump());
+        assertEquals(List.of("e"), text(subscriber.drain()));
+        assertTrue(replay.isSubscribed());
+    }
+
+
+    @Test
+    void dropsReplayOfDisconnectedSubscriber() throws IOException {
+        append("a");
+        StubClient subscriber = new StubClient("subscriber");
+        JournalReplay replay = start(subscriber, 0);
+        subscriber.disconnect();
+
+        assertEquals(List.of(replay), replayer.pump());
+        assertFalse(replay.isSubscribed());
+        assertFalse(topicsDriver.isTopicSubscriber(subscriber, "t"));
+    }
+
+
+    @Test
+    void cancelsReplay() throws IOException {
+        append("a");
+        StubClient subscriber = new StubClient("subscriber");
+        start(subscriber, 0);
+
+        assertTrue(replayer.cancel(subscriber, "t"));
+        assertFalse(replayer.cancel(subscriber, "t"));
+        assertEquals(-1, replayer.nanosUntilNextPump());
+        assertEquals(List.of(), replayer.pump());
+    }
+
+
+    private JournalReplay start(StubClient subscriber, long fromOffset) {
+        JournalReplay replay = new JournalReplay(subscriber, "t", journal, SubscriptionOptions.DEFAULT, Instant.now(), fromOffset);
+        replayer.start(replay);
+        return replay;
+    }
+
+
+    private void append(String... messages) throws IOException {
+        for (String message : messages)
+            journal.append(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private static List<String> text(List<ByteBuffer[]> messages) {
+        return messages.stream().map(message -> StandardCharsets.UTF_8.decode(message[0].duplicate()).toString()).toList();
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.example.server.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TopicJournalTest {
+
+    // Two 10-byte records fit into one segment.
+    private static final int SEGMENT_BYTES = 2 * (JournalSegment.RECORD_HEADER_SIZE + 10);
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    void appendsAcrossSegments() throws IOException {
+        TopicJournal journal = TopicJournal.open(directory, SEGMENT_BYTES, 0, 0);
+
+        for (int i = 0; i < 5; i++)
+            assertEquals(i, journal.append(record(i)));
+
+        assertEquals(0, journal.getStartOffset());
+        assertEquals(5, journal.getEndOffset());
+        assertEquals(3, segmentFiles());
+        assertEquals(List.of("message-00", "message-01", "message-02", "message-03", "message-04"), text(journal.read(0, 10)));
+        assertEquals(List.of("message-02", "message-03"), text(journal.read(2, 2)));
+        assertEquals(List.of(), text(journal.read(5, 10)));
+        journal.close();
+    }
+
+
+    @Test
+    void recoversSegmentsOnReopen() throws IOException {
+        TopicJournal journal = TopicJournal.open(directory, SEGMENT_BYTES, 0, 0);
+        for (int i = 0; i < 3; i++)
+            journal.append(record(i));
+        journal.close();
+
+        TopicJournal reopened = TopicJournal.open(directory, SEGMENT_BYTES, 0, 0);
+
+        assertEquals(3, reopened.getEndOffset());
+        assertEquals(List.of("message-00", "message-01", "message-02"), text(reopened.read(0, 10)));
+        assertEquals(3, reopened.append(record(3)));
+        reopened.close();
+    }
+
+
+    @Test
+    void rejectsMessageLargerThanSegment() throws IOException {
+        TopicJournal journal = TopicJournal.open(directory, SEGMENT_BYTES, 0, 0);
+
+        assertThrows(IOException.class, () -> journal.append(new byte[SEGMENT_BYTES]));
+        assertEquals(0, journal.getEndOffset());
+        journal.close();
+    }
+
+
+    @Test
+    void retentionDropsOldestSegments() throws IOException {
+        TopicJournal journal = TopicJournal.open(directory, SEGMENT_BYTES, SEGMENT_BYTES, 0);
+
+        for (int i = 0; i < 6; i++)
+            journal.append(record(i));
+
+        assertEquals(4, journal.getStartOffset());
+        assertEquals(6, journal.getEndOffset());
+        assertEquals(1, segmentFiles());
+        assertEquals(List.of("message-04", "message-05"), text(journal.read(0, 10)));
+        journal.close();
+    }
+
+
+    @Test
+    void retentionKeepsActiveSegment() throws IOException {
+        TopicJournal journal = TopicJournal.open(directory, SEGMENT_BYTES, 1, 0);
+
+        journal.append(record(0));
+        journal.append(record(1));
+
+        assertEquals(0, journal.getStartOffset());
+        assertEquals(1, segmentFiles());
+        journal.close();
+    }
+
+
+    @Test
+    void findsOffsetForTimestamp() throws IOException {
+        TopicJournal journal = TopicJournal.open(directory, SEGMENT_BYTES, 0, 0);
+        long before = System.currentTimeMillis();
+        journal.append(record(0));
+        journal.append(record(1));
+
+        assertEquals(0, journal.offsetForTimestamp(before - 1000));
+        assertEquals(2, journal.offsetForTimestamp(System.currentTimeMillis() + 1000));
+        journal.close();
+    }
+
+
+    @Test
+    void segmentSearchesTimestampIndex() throws IOException {
+        JournalSegment segment = JournalSegment.open(directory.resolve("segment.log"), 10, 1024);
+        segment.append(record(0), 100);
+        segment.append(record(1), 200);
+        segment.append(record(2), 200);
+        segment.append(record(3), 300);
+
+        assertEquals(10, segment.offsetForTimestamp(50));
+        assertEquals(11, segment.offsetForTimestamp(200));
+        assertEquals(13, segment.offsetForTimestamp(250));
+        assertEquals(14, segment.offsetForTimestamp(400));
+        assertEquals(300, segment.getLastTimestamp());
+        assertEquals("message-02", text(List.of(segment.read(12))).get(0));
+        segment.close();
+    }
+
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).count();
+        }
+    }
+
+
+    private static byte[] record(int index) {
+        return String.format("message-%02d", index).getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    private static List<String> text(List<ByteBuffer> messages) {
+        return messages.stream().map(message -> StandardCharsets.UTF_8.decode(message.duplicate()).toString()).toList();
+    }
+
+}
@@ -0,0 +1,279 @@
+package org.example.server.messages_to_send;
+
+import org.example.server.wire.WireFormat;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundQueueTest {
+
+    @Test
+    void acceptsUntilFull() {
+        OutboundQueue queue = new OutboundQueue(2, 1024, BackpressurePolicy.DISCONNECT, 0);
+
+        assertEquals(OfferResult.ACCEPTED, queue.offer(message("a")));
+        assertEquals(OfferResult.ACCEPTED, queue.offer(message("b")));
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.getQueuedBytes());
+    }
+
+
+    @Test
+    void disconnectPolicyOverflows() {
+        OutboundQueue queue = new OutboundQueue(1, 1024, BackpressurePolicy.DISCONNECT, 0);
+        queue.offer(message("a"));
+
+        assertEquals(OfferResult.OVERFLOW, queue.offer(message("b")));
+        assertEquals(1, queue.size());
+    }
+
+
+    @Test
+    void dropNewestPolicyKeepsQueuedMessages() {
+        OutboundQueue queue = new OutboundQueue(1, 1024, BackpressurePolicy.DROP_NEWEST, 0);
+        queue.offer(message("a"));
+
+        assertEquals(OfferResult.THROTTLED, queue.offer(message("b")));
+        assertEquals("a", text(queue.poll()));
+        assertNull(queue.poll());
+        assertEquals(1, queue.getDroppedMessages());
+    }
+
+
+    @Test
+    void dropOldestPolicyMakesRoomForNewMessage() {
+        OutboundQueue queue = new OutboundQueue(2, 1024, BackpressurePolicy.DROP_OLDEST, 0);
+        queue.offer(message("a"));
+        queue.offer(message("b"));
+
+        assertEquals(OfferResult.THROTTLED, queue.offer(message("c")));
+        assertEquals("b", text(queue.poll()));
+        assertEquals("c", text(queue.poll()));
+        assertEquals(1, queue.getDroppedMessages());
+    }
+
+
+    @Test
+    void dropOldestPolicyHonoursByteLimit() {
+        OutboundQueue queue = new OutboundQueue(10, 4, BackpressurePolicy.DROP_OLDEST, 0);
+        queue.offer(message("aa"));
+        queue.offer(message("bb"));
+
+        queue.offer(message("ccc"));
+
+        assertEquals(1, queue.size());
+        assertEquals(3, queue.getQueuedBytes());
+        assertEquals(2, queue.getDroppedMessages());
+    }
+
+
+    @Test
+    void blockPolicyOverflowsAfterTimeout() {
+        OutboundQueue queue = new OutboundQueue(1, 1024, BackpressurePolicy.BLOCK, 10);
+        queue.offer(message("a"));
+
+        assertEquals(OfferResult.OVERFLOW, queue.offer(message("b")));
+        assertEquals(1, queue.size());
+    }
+
+
+    @Test
+    void blockPolicyWaitsForDrain() throws Exception {
+        OutboundQueue queue = new OutboundQueue(1, 1024, BackpressurePolicy.BLOCK, 10_000);
+        queue.offer(message("a"));
+
+        CompletableFuture<OfferResult> blocked = CompletableFuture.supplyAsync(() -> queue.offer(message("b")));
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertFalse(blocked.isDone());
+
+        assertEquals("a", text(queue.poll()));
+        assertEquals(OfferResult.THROTTLED, blocked.get(5, TimeUnit.SECONDS));
+        assertEquals("b", text(queue.poll()));
+    }
+
+
+    @Test
+    void conflatesQueuedMessagesWithSameKey() {
+        OutboundQueue queue = new OutboundQueue(10, 1024, BackpressurePolicy.DISCONNECT, 0);
+        queue.offer("k1", null, message("a"));
+        queue.offer("k2", null, message("b"));
+
+        assertEquals(OfferResult.ACCEPTED, queue.offer("k1", null, message("ccc")));
+
+        assertEquals(2, queue.size());
+        assertEquals(4, queue.getQueuedBytes());
+        assertEquals(1, queue.getConflatedMessages());
+        assertEquals("ccc", text(queue.poll()));
+        assertEquals("b", text(queue.poll()));
+    }
+
+
+    @Test
+    void conflationSkipsAlreadySentMessages() {
+        OutboundQueue queue = new OutboundQueue(10, 1024, BackpressurePolicy.DISCONNECT, 0);
+        queue.offer("k1", null, message("a"));
+        queue.poll();
+
+        queue.offer("k1", null, message("b"));
+
+        assertEquals(1, queue.size());
+        assertEquals(0, queue.getConflatedMessages());
+    }
+
+
+    @Test
+    void conflationBypassesFullQueue() {
+        OutboundQueue queue = new OutboundQueue(1, 1024, BackpressurePolicy.DISCONNECT, 0);
+        queue.offer("k1", null, message("a"));
+
+        assertEquals(OfferResult.ACCEPTED, queue.offer("k1", null, message("b")));
+        assertEquals("b", text(queue.poll()));
+    }
+
+
+    @Test
+    void conflationRespectsByteLimit() {
+        OutboundQueue queue = new OutboundQueue(10, 4, BackpressurePolicy.DISCONNECT, 0);
+        queue.offer("k1", null, message("a"));
+        queue.offer(message("bb"));
+
+        assertEquals(OfferResult.OVERFLOW, queue.offer("k1", null, message("ccc")));
+        assertEquals(3, queue.getQueuedBytes());
+        assertEquals(0, queue.getConflatedMessages());
+        assertEquals("a", text(queue.poll()));
+    }
+
+
+    @Test
+    void conflationOverByteLimitFollowsPolicy() {
+        OutboundQueue queue = new OutboundQueue(10, 4, BackpressurePolicy.DROP_OLDEST, 0);
+        queue.offer("k1", null, message("a"));
+        queue.offer(message("bb"));
+
+        assertEquals(OfferResult.THROTTLED, queue.offer("k1", null, message("ccc")));
+        assertEquals(1, queue.size());
+        assertEquals(3, queue.getQueuedBytes());
+
+        assertEquals(OfferResult.ACCEPTED, queue.offer("k1", null, message("dd")));
+        assertEquals(1, queue.size());
+        assertEquals("dd", text(queue.poll()));
+    }
+
+
+    @Test
+    void drainsWithinByteBudget() {
+        OutboundQueue queue = new OutboundQueue(10, 1024, BackpressurePolicy.DISCONNECT, 0);
+        queue.offer(message("aaaa"));
+        queue.offer(message("bbbb"));
+        queue.offer(message("c"));
+        List<ByteBuffer[]> batch = new ArrayList<>();
+
+        assertEquals(1, queue.drainTo(batch, 10, 6));
+        assertEquals(2, queue.drainTo(batch, 10, 6));
+        assertEquals(0, queue.drainTo(batch, 10, 6));
+        assertEquals(3, batch.size());
+    }
+
+
+    @Test
+    void drainsOversizedMessageAlone() {
+        OutboundQueue queue = new OutboundQueue(10, 1024, BackpressurePolicy.DISCONNECT, 0);
+        queue.offer(message("aaaaaaaa"));
+        List<ByteBuffer[]> batch = new ArrayList<>();
+
+        assertEquals(1, queue.drainTo(batch, 10, 2));
+    }
+
+
+    @Test
+    void orphansQueuedSharedDeliveriesOnClose() {
+        OutboundQueue queue = new OutboundQueue(10, 1024, BackpressurePolicy.DISCONNECT, 0);
+        SharedDelivery sent = sharedDelivery("sent");
+        SharedDelivery queued = sharedDelivery("queued");
+        queue.offer(null, sent, message("sent"));
+        queue.offer(null, queued, message("queued"));
+        queue.offer(message("plain"));
+        queue.poll();
+
+        queue.close();
+
+        List<SharedDelivery> orphaned = queue.takeOrphanedDeliveries();
+        assertEquals(1, orphaned.size());
+        assertSame(queued, orphaned.get(0));
+        assertTrue(queue.takeOrphanedDeliveries().isEmpty());
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.getQueuedBytes());
+    }
+
+
+    @Test
+    void orphansSharedDeliveriesOfferedAfterClose() {
+        OutboundQueue queue = new OutboundQueue(10, 1024, BackpressurePolicy.DISCONNECT, 0);
+        queue.close();
+        SharedDelivery late = sharedDelivery("late");
+
+        assertEquals(OfferResult.ACCEPTED, queue.offer(null, late, message("late")));
+        assertEquals(OfferResult.ACCEPTED, queue.offer(message("plain")));
+
+        assertTrue(queue.isClosed());
+        assertEquals(0, queue.size());
+        assertEquals(List.of(late), queue.takeOrphanedDeliveries());
+    }
+
+
+    @Test
+    void closeReleasesBlockedProducer() throws Exception {
+        OutboundQueue queue = new OutboundQueue(1, 1024, BackpressurePolicy.BLOCK, 10_000);
+        queue.offer(message("a"));
+
+        CompletableFuture<OfferResult> blocked = CompletableFuture.supplyAsync(() -> queue.offer(message("b")));
+        TimeUnit.MILLISECONDS.sleep(50);
+        queue.close();
+
+        assertEquals(OfferResult.ACCEPTED, blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(0, queue.size());
+    }
+
+
+    @Test
+    void orphansSharedDeliveryOfBlockedProducerOnClose() throws Exception {
+        OutboundQueue queue = new OutboundQueue(1, 1024, BackpressurePolicy.BLOCK, 10_000);
+        queue.offer(message("a"));
+        SharedDelivery blockedDelivery = sharedDelivery("b");
+
+        CompletableFuture<OfferResult> blocked = CompletableFuture.supplyAsync(() -> queue.offer(null, blockedDelivery, message("b")));
+        TimeUnit.MILLISECONDS.sleep(50);
+        queue.close();
+
+        assertEquals(OfferResult.ACCEPTED, blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(blockedDelivery), queue.takeOrphanedDeliveries());
+    }
+
+
+    private static ByteBuffer[] message(String text) {
+        return new ByteBuffer[]{ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))};
+    }
+
+
+    private static String text(ByteBuffer[] message) {
+        return StandardCharsets.UTF_8.decode(message[0].duplicate()).toString();
+    }
+
+
+    private static SharedDelivery sharedDelivery(String text) {
+        return new SharedDelivery("topic", "group", Map.of(), WireFormat.JSON, ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
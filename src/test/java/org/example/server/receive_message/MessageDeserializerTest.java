@@ -0,0 +1,182 @@
+package org.example.server.receive_message;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.server.receive_message.file.FileChunkPayload;
+import org.example.server.receive_message.message.MessagePayload;
+import org.example.server.wire.WireFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MessageDeserializerTest {
+
+    private static final String ENVELOPE = "{\"type\":\"%s\",\"senderId\":\"s1\",\"topic\":\"t1\",\"mode\":\"%s\","
+            + "\"timestamp\":\"2024-01-01T00:00:00Z\",\"payload\":%s}";
+
+    private static final Map<String, String> PAYLOADS = Map.ofEntries(
+            Map.entry("register", "{\"backpressure\":\"drop-oldest\",\"ackEvery\":5,\"journal\":true,\"filter\":\"a = 'b'\","
+                    + "\"group\":\"g\",\"replayFromOffset\":7,\"replayFromTimestamp\":\"2024-01-01T00:00:00Z\"}"),
+            Map.entry("status", "{}"),
+            Map.entry("message", "{\"message\":\"hello\",\"key\":\"k\",\"headers\":{\"region\":\"eu\"}}"),
+            Map.entry("withdraw", "{}"),
+            Map.entry("config", "{}"),
+            Map.entry("file", "{\"message\":\"aGVsbG8=\"}"),
+            Map.entry("batch", "{\"messages\":[\"a\",\"b\",\"c\"]}"),
+            Map.entry("file-begin", "{\"fileId\":\"f1\",\"name\":\"a.bin\",\"size\":1024}"),
+            Map.entry("file-chunk", "{\"fileId\":\"f1\",\"offset\":512,\"data\":\"AAECAw==\"}"),
+            Map.entry("file-end", "{\"fileId\":\"f1\"}"),
+            Map.entry("file-resume", "{\"fileId\":\"f1\",\"offset\":256}")
+    );
+
+    private final ObjectMapper streamingJson = WireFormat.JSON.createMapper();
+    private final ObjectMapper streamingSmile = WireFormat.SMILE.createMapper();
+    private final ObjectMapper treeJson = treeMapper(WireFormat.JSON);
+    private final ObjectMapper treeSmile = treeMapper(WireFormat.SMILE);
+
+
+    @Test
+    void matchesTreeDecodingForEveryType() throws IOException {
+        for (Map.Entry<String, String> entry : PAYLOADS.entrySet()) {
+            byte[] json = envelope(entry.getKey(), entry.getValue());
+
+            Message expected = decodeWithTree(treeJson, json);
+            Message actual = streamingJson.readValue(json, Message.class);
+
+            assertEquals(expected, actual, entry.getKey());
+            assertEquals(entry.getKey(), actual.getPayload().getType());
+        }
+    }
+
+
+    @Test
+    void matchesTreeDecodingForSmile() throws IOException {
+        for (Map.Entry<String, String> entry : PAYLOADS.entrySet()) {
+            byte[] smile = streamingSmile.writeValueAsBytes(smileTree(envelope(entry.getKey(), entry.getValue())));
+
+            Message expected = decodeWithTree(treeSmile, smile);
+            Message actual = streamingSmile.readValue(smile, Message.class);
+
+            assertEquals(expected, actual, entry.getKey());
+        }
+    }
+
+
+    @Test
+    void bindsPayloadThatPrecedesType() throws IOException {
+        byte[] json = ("{\"payload\":{\"message\":\"hello\",\"key\":\"k\"},\"senderId\":\"s1\",\"topic\":\"t1\","
+                + "\"mode\":\"producer\",\"timestamp\":\"2024-01-01T00:00:00Z\",\"type\":\"message\"}").getBytes(StandardCharsets.UTF_8);
+
+        Message expected = decodeWithTree(treeJson, json);
+        Message actual = streamingJson.readValue(json, Message.class);
+
+        assertEquals(expected, actual);
+        MessagePayload payload = assertInstanceOf(MessagePayload.class, actual.getPayload());
+        assertEquals("hello", payload.getMessage());
+        assertEquals("message", payload.getType());
+    }
+
+
+    @Test
+    void decodesChunkDataAsBytes() throws IOException {
+        Message message = streamingJson.readValue(envelope("file-chunk", PAYLOADS.get("file-chunk")), Message.class);
+
+        FileChunkPayload payload = assertInstanceOf(FileChunkPayload.class, message.getPayload());
+        assertArrayEquals(new byte[]{0, 1, 2, 3}, payload.getData());
+        assertEquals(512, payload.getOffset());
+    }
+
+
+    @Test
+    void rejectsNullPayloadThroughValidation() throws IOException {
+        byte[] json = envelope("message", "null");
+
+        assertNull(streamingJson.readValue(json, Message.class).getPayload());
+        assertNull(new MessageDecoder().decode(json, WireFormat.JSON));
+    }
+
+
+    @Test
+    void rejectsWhatTreeDecodingRejects() {
+        List<byte[]> invalid = List.of(
+                envelope("unknown", "{}"),
+                envelope("message", "[\"hello\"]"),
+                envelope("message", "{\"message\":\"hello\",\"extra\":1}"),
+                "{\"type\":\"status\",\"extra\":1,\"payload\":{}}".getBytes(StandardCharsets.UTF_8),
+                "{\"type\":\"status\",\"payload\":{}".getBytes(StandardCharsets.UTF_8)
+        );
+
+        for (byte[] input : invalid) {
+            assertThrows(IOException.class, () -> decodeWithTree(treeJson, input));
+            assertThrows(IOException.class, () -> streamingJson.readValue(input, Message.class));
+            assertNull(new MessageDecoder().decode(input, WireFormat.JSON));
+        }
+    }
+
+
+    @Test
+    void decoderAcceptsValidEnvelope() {
+        Message message = new MessageDecoder().decode(envelope("message", PAYLOADS.get("message")), WireFormat.JSON);
+
+        assertNotNull(message);
+        assertEquals("s1", message.getSenderId());
+        assertInstanceOf(MessagePayload.class, message.getPayload());
+    }
+
+
+    // The decoding path used before the streaming deserializer: parse a tree, copy the outer type into the
+    // payload and bind the tree through the polymorphic Payload type info. The type id is consumed there, so it is
+    // copied back to make the result comparable with the streaming path, which keeps it on the payload.
+    private static Message decodeWithTree(ObjectMapper mapper, byte[] input) throws IOException {
+        JsonNode root = mapper.readTree(input);
+        if (!(root.path("payload") instanceof ObjectNode payload))
+            throw new IOException("Payload is not an object");
+
+        payload.put("type", root.path("type").asText());
+        Message message = mapper.treeToValue(root, Message.class);
+        message.getPayload().setType(message.getType());
+
+        return message;
+    }
+
+
+    // Smile clients send chunk data as raw binary rather than base64 text.
+    private JsonNode smileTree(byte[] json) throws IOException {
+        JsonNode root = treeJson.readTree(json);
+        JsonNode payload = root.path("payload");
+        if (payload.has("data"))
+            ((ObjectNode) payload).put("data", payload.get("data").binaryValue());
+
+        return root;
+    }
+
+
+    private static ObjectMapper treeMapper(WireFormat format) {
+        return format.createMapper().addMixIn(Message.class, BeanMessageMixIn.class);
+    }
+
+
+    private static byte[] envelope(String type, String payload) {
+        String mode = type.equals("register") || type.equals("withdraw") ? "subscriber" : "producer";
+        return String.format(ENVELOPE, type, mode, payload).getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    private abstract static class BeanMessageMixIn {
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.example.server.topics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactedTopicTest {
+
+    @Test
+    void keepsLatestValuePerKeyInUpdateOrder() {
+        CompactedTopic topic = new CompactedTopic(100, false);
+        topic.put("a", bytes("a1"));
+        topic.put("b", bytes("b1"));
+        topic.put("a", bytes("a2"));
+
+        assertEquals(List.of("b1", "a2"), text(topic.snapshot()));
+        assertEquals("2 keys, 4/100 bytes", topic.describe());
+    }
+
+
+    @Test
+    void rejectsUpdateOverBudget() {
+        CompactedTopic topic = new CompactedTopic(6, false);
+
+        assertTrue(topic.put("a", bytes("aaa")));
+        assertTrue(topic.put("b", bytes("bbb")));
+        assertFalse(topic.put("c", bytes("c")));
+
+        assertEquals(List.of("aaa", "bbb"), text(topic.snapshot()));
+        assertEquals(1, topic.getRejectedUpdates());
+        assertEquals("2 keys, 6/6 bytes, 1 updates rejected", topic.describe());
+    }
+
+
+    @Test
+    void acceptsReplacementThatFitsBudget() {
+        CompactedTopic topic = new CompactedTopic(6, false);
+        topic.put("a", bytes("aaa"));
+        topic.put("b", bytes("bbb"));
+
+        assertTrue(topic.put("a", bytes("A")));
+        assertFalse(topic.put("b", bytes("bbbbbb")));
+        assertTrue(topic.put("b", bytes("bbbbb")));
+
+        assertEquals(List.of("A", "bbbbb"), text(topic.snapshot()));
+    }
+
+
+    @Test
+    void snapshotIsIndependentOfLaterUpdates() {
+        CompactedTopic topic = new CompactedTopic(100, true);
+        topic.put("a", bytes("a1"));
+
+        List<ByteBuffer> snapshot = topic.snapshot();
+        topic.put("a", bytes("a2"));
+        topic.snapshot().get(0).position(1);
+
+        assertEquals(List.of("a1"), text(snapshot));
+        assertEquals(List.of("a2"), text(topic.snapshot()));
+        assertTrue(topic.describe().endsWith("off-heap"));
+    }
+
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    private static List<String> text(List<ByteBuffer> values) {
+        return values.stream().map(value -> StandardCharsets.UTF_8.decode(value).toString()).toList();
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.example.server.topics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LastValueCacheTest {
+
+    @Test
+    void keepsLatestValuePerTopic() {
+        LastValueCache cache = new LastValueCache(100);
+        cache.put("a", bytes("first"));
+        cache.put("a", bytes("second"));
+
+        assertEquals("second", text(cache.get("a")));
+        assertEquals(1, cache.getEntries());
+        assertEquals(6, cache.getUsedBytes());
+        assertNull(cache.get("b"));
+    }
+
+
+    @Test
+    void returnsIndependentViews() {
+        LastValueCache cache = new LastValueCache(100);
+        cache.put("a", bytes("value"));
+
+        cache.get("a").position(3);
+
+        assertEquals("value", text(cache.get("a")));
+    }
+
+
+    @Test
+    void evictsLeastRecentlyUsedOverBudget() {
+        LastValueCache cache = new LastValueCache(10);
+        cache.put("a", bytes("aaaa"));
+        cache.put("b", bytes("bbbb"));
+        cache.get("a");
+        cache.put("c", bytes("cccc"));
+
+        assertEquals(List.of("a", "c"), List.copyOf(cache.getSizes().keySet()));
+        assertNull(cache.get("b"));
+        assertEquals(8, cache.getUsedBytes());
+        assertEquals(1, cache.getEvictions());
+    }
+
+
+    @Test
+    void skipsValueLargerThanBudget() {
+        LastValueCache cache = new LastValueCache(4);
+        cache.put("a", bytes("aaa"));
+        cache.put("a", bytes("too large"));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getUsedBytes());
+        assertEquals(0, cache.getEvictions());
+    }
+
+
+    @Test
+    void removesValue() {
+        LastValueCache cache = new LastValueCache(100);
+        cache.put("a", bytes("value"));
+        cache.remove("a");
+        cache.remove("a");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    private static String text(ByteBuffer value) {
+        return StandardCharsets.UTF_8.decode(value).toString();
+    }
+
+}
@@ -0,0 +1,111 @@
+package org.example.server.topics;
+
+import org.example.client.ClientThread;
+import org.example.client.StubClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionTrieTest {
+
+    private final ClientThread first = new StubClient("first");
+    private final ClientThread second = new StubClient("second");
+
+
+    @Test
+    void detectsPatternsByWholeLevels() {
+        assertTrue(SubscriptionTrie.isPattern("sensors/+/temp"));
+        assertTrue(SubscriptionTrie.isPattern("sensors/#"));
+        assertTrue(SubscriptionTrie.isPattern("+"));
+
+        assertFalse(SubscriptionTrie.isPattern("c++"));
+        assertFalse(SubscriptionTrie.isPattern("a#b"));
+        assertFalse(SubscriptionTrie.isPattern("lang/c++/news"));
+        assertFalse(SubscriptionTrie.isPattern("sensors/temp"));
+    }
+
+
+    @Test
+    void validatesPatterns() {
+        assertTrue(SubscriptionTrie.isValidPattern("sensors/+/temp"));
+        assertTrue(SubscriptionTrie.isValidPattern("sensors/#"));
+        assertTrue(SubscriptionTrie.isValidPattern("#"));
+
+        assertFalse(SubscriptionTrie.isValidPattern("sensors/#/temp"));
+        assertFalse(SubscriptionTrie.isValidPattern("sensors/+/c++"));
+        assertFalse(SubscriptionTrie.isValidPattern("sensors/a#/+"));
+    }
+
+
+    @Test
+    void matchesSingleAndMultiLevelWildcards() {
+        assertTrue(SubscriptionTrie.matches("sensors/+/temp", "sensors/a/temp"));
+        assertFalse(SubscriptionTrie.matches("sensors/+/temp", "sensors/a/b/temp"));
+        assertFalse(SubscriptionTrie.matches("sensors/+/temp", "sensors/a"));
+        assertTrue(SubscriptionTrie.matches("sensors/#", "sensors/a/b/temp"));
+        assertTrue(SubscriptionTrie.matches("sensors/#", "sensors"));
+        assertFalse(SubscriptionTrie.matches("sensors/#", "actuators/a"));
+        assertTrue(SubscriptionTrie.matches("#", "anything/at/all"));
+    }
+
+
+    @Test
+    void collectsSubscribersOfAllMatchingPatterns() {
+        SubscriptionTrie trie = new SubscriptionTrie();
+        trie.add("sensors/+/temp", first, SubscriptionOptions.DEFAULT);
+        trie.add("sensors/#", second, SubscriptionOptions.DEFAULT);
+        trie.add("sensors/+/humidity", second, SubscriptionOptions.DEFAULT);
+
+        assertEquals(Set.of(first, second), trie.match("sensors/a/temp").keySet());
+        assertEquals(Set.of(second), trie.match("sensors/a/humidity").keySet());
+        assertEquals(Set.of(second), trie.match("sensors").keySet());
+        assertTrue(trie.match("actuators/a/temp").isEmpty());
+    }
+
+
+    @Test
+    void keepsOptionsOfFirstMatchingSubscription() {
+        SubscriptionTrie trie = new SubscriptionTrie();
+        SubscriptionOptions conflating = new SubscriptionOptions(true, null, null, null);
+        trie.add("sensors/#", first, conflating);
+        trie.add("sensors/+/temp", first, SubscriptionOptions.DEFAULT);
+
+        Map<ClientThread, SubscriptionOptions> matched = trie.match("sensors/a/temp");
+
+        assertEquals(1, matched.size());
+        assertEquals(conflating, matched.get(first));
+    }
+
+
+    @Test
+    void rejectsDuplicateAndUnknownSubscriptions() {
+        SubscriptionTrie trie = new SubscriptionTrie();
+
+        assertTrue(trie.add("sensors/+", first, SubscriptionOptions.DEFAULT));
+        assertFalse(trie.add("sensors/+", first, SubscriptionOptions.DEFAULT));
+        assertFalse(trie.remove("sensors/+", second));
+        assertFalse(trie.remove("sensors/#", first));
+    }
+
+
+    @Test
+    void removesSubscriptionsAndPatterns() {
+        SubscriptionTrie trie = new SubscriptionTrie();
+        trie.add("sensors/+/temp", first, SubscriptionOptions.DEFAULT);
+        trie.add("sensors/+/temp", second, SubscriptionOptions.DEFAULT);
+
+        assertTrue(trie.remove("sensors/+/temp", first));
+        assertEquals(Set.of(second), trie.match("sensors/a/temp").keySet());
+        assertTrue(trie.getPatterns().containsKey("sensors/+/temp"));
+
+        assertTrue(trie.remove("sensors/+/temp", second));
+        assertTrue(trie.match("sensors/a/temp").isEmpty());
+        assertTrue(trie.getPatterns().isEmpty());
+    }
+
+}
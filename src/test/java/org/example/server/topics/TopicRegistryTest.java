@@ -0,0 +1,192 @@
+package org.example.server.topics;
+
+import org.example.client.ClientThread;
+import org.example.client.StubClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicRegistryTest {
+
+    private TopicRegistry registry;
+    private ClientThread producer;
+    private ClientThread subscriber;
+
+
+    @BeforeEach
+    void setUp() {
+        registry = new TopicRegistry();
+        producer = new StubClient("Producer");
+        subscriber = new StubClient("subscriber");
+    }
+
+
+    @Test
+    void indexesProducedAndSubscribedTopics() {
+        assertTrue(registry.addTopic("a", new TopicData(producer)));
+        assertTrue(registry.addTopic("b", new TopicData(producer)));
+        assertTrue(registry.addSubscriber("a", subscriber, SubscriptionOptions.DEFAULT));
+
+        assertEquals(Set.of("a", "b"), registry.getClientTopics(producer).producedTopics());
+        assertEquals(Set.of("a"), registry.getClientTopics(subscriber).subscribedTopics());
+        assertTrue(registry.isSubscriberOrProducer("a", producer));
+        assertFalse(registry.isSubscriberOrProducer("a", subscriber));
+        assertTrue(registry.checkConsistency().isEmpty());
+    }
+
+
+    @Test
+    void dropsIndexEntryWithLastMembership() {
+        registry.addTopic("a", new TopicData(producer));
+        registry.addSubscriber("a", subscriber, SubscriptionOptions.DEFAULT);
+
+        assertFalse(registry.addSubscriber("a", subscriber, SubscriptionOptions.DEFAULT));
+        assertTrue(registry.removeSubscriber("a", subscriber));
+        assertFalse(registry.removeSubscriber("a", subscriber));
+
+        assertSame(ClientTopics.EMPTY, registry.getClientTopics(subscriber));
+        assertTrue(registry.checkConsistency().isEmpty());
+    }
+
+
+    @Test
+    void removingTopicUnindexesProducerAndSubscribers() {
+        registry.addTopic("a", new TopicData(producer));
+        registry.addSubscriber("a", subscriber, SubscriptionOptions.DEFAULT);
+
+        TopicData removed = registry.removeTopic("a");
+
+        assertSame(producer, removed.getProducer());
+        assertNull(registry.getTopic("a"));
+        assertNull(registry.getProducer("Producer"));
+        assertSame(ClientTopics.EMPTY, registry.getClientTopics(producer));
+        assertSame(ClientTopics.EMPTY, registry.getClientTopics(subscriber));
+        assertTrue(registry.checkConsistency().isEmpty());
+    }
+
+
+    @Test
+    void looksUpProducersIgnoringCase() {
+        registry.addTopic("a", new TopicData(producer));
+
+        assertSame(producer, registry.getProducer("producer"));
+        assertSame(producer, registry.getProducer("PRODUCER"));
+        assertNull(registry.getProducer("other"));
+        assertNull(registry.getProducer(null));
+    }
+
+
+    @Test
+    void rejectsProducerIdOwnedByAnotherClient() {
+        registry.addTopic("a", new TopicData(producer));
+
+        assertFalse(registry.addTopic("b", new TopicData(new StubClient("PRODUCER"))));
+        assertFalse(registry.topicExists("b"));
+        assertTrue(registry.addTopic("b", new TopicData(producer)));
+        assertTrue(registry.checkConsistency().isEmpty());
+    }
+
+
+    @Test
+    void releasesProducerIdWithLastTopic() {
+        registry.addTopic("a", new TopicData(producer));
+        registry.addTopic("b", new TopicData(producer));
+
+        registry.removeTopic("a");
+        assertSame(producer, registry.getProducer("producer"));
+
+        registry.removeTopic("b");
+        ClientThread successor = new StubClient("producer");
+        assertTrue(registry.addTopic("c", new TopicData(successor)));
+        assertSame(successor, registry.getProducer("Producer"));
+    }
+
+
+    @Test
+    void routesWildcardSubscriptionsToMatchingTopics() {
+        registry.addTopic("sensors/a/temp", new TopicData(producer));
+        registry.addTopic("sensors/a/humidity", new TopicData(producer));
+
+        assertTrue(registry.addSubscriber("sensors/+/temp", subscriber, SubscriptionOptions.DEFAULT));
+        registry.addTopic("sensors/b/temp", new TopicData(producer));
+
+        assertTrue(registry.getTopic("sensors/a/temp").getSubscribers().contains(subscriber));
+        assertTrue(registry.getTopic("sensors/b/temp").getSubscribers().contains(subscriber));
+        assertFalse(registry.getTopic("sensors/a/humidity").getSubscribers().contains(subscriber));
+        assertEquals(2, registry.countMatchingTopics("sensors/+/temp"));
+        assertEquals(3, registry.countMatchingTopics("sensors/#"));
+        assertEquals(Set.of("sensors/+/temp"), registry.getClientTopics(subscriber).subscribedTopics());
+        assertTrue(registry.checkConsistency().isEmpty());
+
+        assertTrue(registry.removeSubscriber("sensors/+/temp", subscriber));
+
+        assertFalse(registry.getTopic("sensors/a/temp").getSubscribers().contains(subscriber));
+        assertFalse(registry.getTopic("sensors/b/temp").getSubscribers().contains(subscriber));
+        assertSame(ClientTopics.EMPTY, registry.getClientTopics(subscriber));
+        assertTrue(registry.checkConsistency().isEmpty());
+    }
+
+
+    @Test
+    void keepsExactAndWildcardSubscriptionsApart() {
+        registry.addTopic("sensors/a/temp", new TopicData(producer));
+        registry.addSubscriber("sensors/a/temp", subscriber, SubscriptionOptions.DEFAULT);
+        registry.addSubscriber("sensors/#", subscriber, SubscriptionOptions.DEFAULT);
+
+        registry.removeSubscriber("sensors/#", subscriber);
+
+        assertTrue(registry.getTopic("sensors/a/temp").getSubscribers().contains(subscriber));
+        assertEquals(Set.of("sensors/a/temp"), registry.getClientTopics(subscriber).subscribedTopics());
+        assertTrue(registry.checkConsistency().isEmpty());
+    }
+
+
+    @Test
+    void removesEveryMembershipOfClient() {
+        ClientThread other = new StubClient("other");
+        registry.addTopic("a", new TopicData(producer));
+        registry.addTopic("b", new TopicData(other));
+        registry.addTopic("c/x", new TopicData(other));
+        registry.addSubscriber("a", subscriber, SubscriptionOptions.DEFAULT);
+        registry.addSubscriber("b", producer, SubscriptionOptions.DEFAULT);
+        registry.addSubscriber("c/+", producer, SubscriptionOptions.DEFAULT);
+        registry.addSubscriber("b", subscriber, SubscriptionOptions.DEFAULT);
+
+        Map<String, TopicData> removed = registry.removeClient(producer);
+
+        assertEquals(Set.of("a"), removed.keySet());
+        assertFalse(registry.topicExists("a"));
+        assertNull(registry.getProducer("producer"));
+        assertFalse(registry.getTopic("b").getSubscribers().contains(producer));
+        assertFalse(registry.getTopic("c/x").getSubscribers().contains(producer));
+        assertSame(ClientTopics.EMPTY, registry.getClientTopics(producer));
+        assertEquals(Set.of("b"), registry.getClientTopics(subscriber).subscribedTopics());
+        assertTrue(registry.removeClient(producer).isEmpty());
+        assertTrue(registry.checkConsistency().isEmpty());
+    }
+
+
+    @Test
+    void keepsRoundRobinCursorAcrossSubscriptionChanges() {
+        ClientThread first = new StubClient("first");
+        ClientThread second = new StubClient("second");
+        SubscriptionOptions grouped = new SubscriptionOptions(false, null, "workers", GroupStrategy.ROUND_ROBIN);
+        registry.addTopic("a", new TopicData(producer));
+        registry.addSubscriber("a", first, grouped);
+        registry.addSubscriber("a", second, grouped);
+
+        ClientThread picked = registry.getTopic("a").pickGroupMember("workers", Map.of());
+        registry.addSubscriber("a", subscriber, SubscriptionOptions.DEFAULT);
+
+        assertSame(picked == first ? second : first, registry.getTopic("a").pickGroupMember("workers", Map.of()));
+    }
+
+}